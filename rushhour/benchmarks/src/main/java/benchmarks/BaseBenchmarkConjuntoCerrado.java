@@ -0,0 +1,162 @@
+package benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import main.ConjuntoCerrado;
+import main.Disposicion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * QUE: Insertar y consultar los mismos estados empaquetados en
+ * ConjuntoCerrado, HashSet&lt;Long&gt; y HashSet&lt;String&gt;; las
+ * subclases eligen cuántos estados y de dónde salen.
+ * POR QUE: Cada variante paga lo que pagaría dentro de Busqueda: el
+ * HashSet&lt;Long&gt; encajona el long y el HashSet&lt;String&gt; construye
+ * el String del nivel; ConjuntoCerrado con Zobrist recibe el hash ya
+ * calculado, igual que con el hash incremental de la búsqueda. Las
+ * inserciones empiezan cada vez con un conjunto nuevo de capacidad pequeña,
+ * así que incluyen los redimensionados. Las consultas
+ * alternan un estado presente y uno ausente. Las subclases declaran a nivel
+ * de clase @OperationsPerInvocation(estados()), así que el resultado es por
+ * operación.
+ */
+abstract class BaseBenchmarkConjuntoCerrado {
+
+    /**
+     * Capacidad inicial de todos los conjuntos: pequeña, para que insertar
+     * mida sobre todo el crecimiento y no el vaciado de un array enorme.
+     */
+    static final int CAPACIDAD_INICIAL = 1 << 10;
+
+    protected Disposicion disposicion;
+
+    private long[] insertados;
+    private long[] hashesInsertados;
+    private long[] consultados;
+    private long[] hashesConsultados;
+
+    private ConjuntoCerrado cerradoLleno;
+    private ConjuntoCerrado cerradoZobristLleno;
+    private Set<Long> conjuntoLongLleno;
+    private Set<String> conjuntoStringLleno;
+
+    /**
+     * QUE: Estados insertados por invocación (y consultados, la mitad
+     * presentes).
+     */
+    protected abstract int estados();
+
+    /**
+     * QUE: Asigna 'disposicion' y devuelve 'cuantos' estados distintos.
+     */
+    protected abstract long[] generarEstados(int cuantos);
+
+    @Setup
+    public void preparar() {
+        int n = estados();
+        long[] todos = generarEstados(n + n / 2);
+        insertados = new long[n];
+        consultados = new long[n];
+        System.arraycopy(todos, 0, insertados, 0, n);
+        for (int i = 0; i < n / 2; i++) {
+            consultados[2 * i] = todos[n / 2 + i];
+            consultados[2 * i + 1] = todos[n + i];
+        }
+        hashesInsertados = hashes(insertados);
+        hashesConsultados = hashes(consultados);
+
+        cerradoLleno = insertarCerrado();
+        cerradoZobristLleno = insertarCerradoZobrist();
+        conjuntoLongLleno = insertarHashSetLong();
+        conjuntoStringLleno = insertarHashSetString();
+    }
+
+    private static long[] hashes(long[] estados) {
+        long[] hashes = new long[estados.length];
+        for (int i = 0; i < estados.length; i++) {
+            hashes[i] = Disposicion.hashZobrist(estados[i]);
+        }
+        return hashes;
+    }
+
+    @Benchmark
+    public ConjuntoCerrado insertarCerrado() {
+        ConjuntoCerrado cerrado = new ConjuntoCerrado(CAPACIDAD_INICIAL, false);
+        for (long estado : insertados) {
+            cerrado.agregar(estado);
+        }
+        return cerrado;
+    }
+
+    @Benchmark
+    public ConjuntoCerrado insertarCerradoZobrist() {
+        ConjuntoCerrado cerrado = new ConjuntoCerrado(CAPACIDAD_INICIAL, false, true);
+        for (int i = 0; i < insertados.length; i++) {
+            cerrado.agregar(insertados[i], hashesInsertados[i]);
+        }
+        return cerrado;
+    }
+
+    @Benchmark
+    public Set<Long> insertarHashSetLong() {
+        Set<Long> conjunto = new HashSet<>(CAPACIDAD_INICIAL);
+        for (long estado : insertados) {
+            conjunto.add(estado);
+        }
+        return conjunto;
+    }
+
+    @Benchmark
+    public Set<String> insertarHashSetString() {
+        Set<String> conjunto = new HashSet<>(CAPACIDAD_INICIAL);
+        for (long estado : insertados) {
+            conjunto.add(disposicion.decodificar(estado));
+        }
+        return conjunto;
+    }
+
+    @Benchmark
+    public int consultarCerrado() {
+        int encontrados = 0;
+        for (long estado : consultados) {
+            if (cerradoLleno.contiene(estado)) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public int consultarCerradoZobrist() {
+        int encontrados = 0;
+        for (int i = 0; i < consultados.length; i++) {
+            if (cerradoZobristLleno.contiene(consultados[i], hashesConsultados[i])) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public int consultarHashSetLong() {
+        int encontrados = 0;
+        for (long estado : consultados) {
+            if (conjuntoLongLleno.contains(estado)) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public int consultarHashSetString() {
+        int encontrados = 0;
+        for (long estado : consultados) {
+            if (conjuntoStringLleno.contains(disposicion.decodificar(estado))) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+}
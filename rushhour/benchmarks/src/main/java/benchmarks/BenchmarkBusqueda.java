@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import main.Busqueda;
+import main.HeuristicaCero;
+import main.Nivel;
+import main.Nodo;
+import main.Tablero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QUE: Resolución completa de los niveles del corpus con BFS y UCS.
+ * POR QUE: Mide el camino que recorre solve (frontera, conjunto cerrado,
+ * generación de sucesores y reconstrucción del camino). La Busqueda se
+ * reutiliza entre invocaciones, igual que en batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkBusqueda {
+
+    @Param({"BFS", "UCS"})
+    public String estrategia;
+
+    @Param({Corpus.FACIL, Corpus.MEDIO, Corpus.DIFICIL})
+    public String nivel;
+
+    private Busqueda busqueda;
+    private Tablero tablero;
+
+    @Setup
+    public void preparar() {
+        busqueda = new Busqueda(estrategia, new HeuristicaCero(), Busqueda.SIN_LIMITE);
+        tablero = Tablero.create_tablero(new Nivel(Corpus.nivel(nivel)));
+    }
+
+    @Benchmark
+    public Nodo resolver() {
+        return busqueda.resolver(tablero);
+    }
+}
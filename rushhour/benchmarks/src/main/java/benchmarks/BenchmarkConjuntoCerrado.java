@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import main.ConjuntoCerrado;
+import main.Nivel;
+import main.Tablero;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QUE: Conjunto cerrado con los primeros estados de la anchura de un nivel
+ * del corpus.
+ * POR QUE: Son los estados que ve una búsqueda real, pero caben en la caché
+ * del procesador: mide el coste por operación sin fallos de memoria. El
+ * tamaño de las búsquedas grandes lo mide BenchmarkConjuntoCerradoGrande.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(BenchmarkConjuntoCerrado.ESTADOS)
+public class BenchmarkConjuntoCerrado extends BaseBenchmarkConjuntoCerrado {
+
+    static final int ESTADOS = 1 << 10;
+
+    @Param({Corpus.MEDIO, Corpus.DIFICIL})
+    public String nivel;
+
+    @Override
+    protected int estados() {
+        return ESTADOS;
+    }
+
+    /**
+     * QUE: Los primeros 'cuantos' estados distintos de la anchura desde el
+     * estado inicial del nivel.
+     */
+    @Override
+    protected long[] generarEstados(int cuantos) {
+        Tablero tablero = Tablero.create_tablero(new Nivel(Corpus.nivel(nivel)));
+        disposicion = tablero.getDisposicion();
+        long[] cola = new long[cuantos];
+        ConjuntoCerrado vistos = new ConjuntoCerrado(cuantos, false);
+        int[] fin = { 0 };
+        vistos.agregar(tablero.getEstado());
+        cola[fin[0]++] = tablero.getEstado();
+        for (int i = 0; i < fin[0] && fin[0] < cuantos; i++) {
+            disposicion.generarSucesores(cola[i], (accion, costo, nuevoEstado) -> {
+                if (fin[0] < cuantos && vistos.agregar(nuevoEstado)) {
+                    cola[fin[0]++] = nuevoEstado;
+                }
+            });
+        }
+        if (fin[0] < cuantos) {
+            throw new IllegalStateException("El nivel " + nivel + " tiene menos de " + cuantos + " estados");
+        }
+        return cola;
+    }
+}
@@ -0,0 +1,138 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import main.ConjuntoCerrado;
+import main.Disposicion;
+import main.Nivel;
+import main.Tablero;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QUE: Conjunto cerrado con millones de estados distintos del nivel
+ * difícil, y (con main) la memoria que ocupa cada conjunto por estado.
+ * POR QUE: ConjuntoCerrado existe para que decenas de millones de estados
+ * quepan en unos cientos de MB; eso solo se ve con conjuntos mucho mayores
+ * que la caché y que crecen desde la capacidad inicial. Un tablero de 6x6
+ * no tiene tantas colocaciones válidas (el nivel difícil, unas 20.000), así
+ * que cada vehículo toma una posición al azar de su carril (semilla fija)
+ * aunque se solape con otro: son claves con la misma codificación y la misma
+ * dispersión de bits que los estados de una búsqueda. Se descartan las que
+ * dan el mismo String que otra anterior, para que los tres conjuntos guarden
+ * el mismo número de claves.
+ *
+ * Huella: java -Xmx3g -cp target/benchmarks.jar benchmarks.BenchmarkConjuntoCerradoGrande
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@OperationsPerInvocation(BenchmarkConjuntoCerradoGrande.ESTADOS)
+public class BenchmarkConjuntoCerradoGrande extends BaseBenchmarkConjuntoCerrado {
+
+    static final int ESTADOS = 1 << 22;
+
+    @Override
+    protected int estados() {
+        return ESTADOS;
+    }
+
+    /**
+     * QUE: 'cuantos' estados distintos, también como String, de la
+     * disposición del nivel difícil con los vehículos en posiciones
+     * aleatorias.
+     */
+    @Override
+    protected long[] generarEstados(int cuantos) {
+        Tablero tablero = Tablero.create_tablero(new Nivel(Corpus.nivel(Corpus.DIFICIL)));
+        disposicion = tablero.getDisposicion();
+        long[] estados = new long[cuantos];
+        ConjuntoCerrado vistos = new ConjuntoCerrado(cuantos, false);
+        Set<String> cadenas = new HashSet<>(cuantos);
+        Random aleatorio = new Random(42);
+        int n = 0;
+        while (n < cuantos) {
+            long estado = 0;
+            for (int v = 0; v < disposicion.numVehiculos(); v++) {
+                int pos = aleatorio.nextInt(7 - disposicion.getLongitud(v));
+                estado = Disposicion.conPosicion(estado, v, pos);
+            }
+            if (vistos.agregar(estado) && cadenas.add(disposicion.decodificar(estado))) {
+                estados[n++] = estado;
+            }
+        }
+        return estados;
+    }
+
+    /**
+     * QUE: Imprime los bytes por estado que retiene cada conjunto con
+     * ESTADOS estados.
+     * POR QUE: JMH mide tiempo y, con -prof gc, lo que se reserva, pero no
+     * lo que queda ocupado. Se mide la diferencia de heap usado tras
+     * recolectar antes y después de llenar cada conjunto.
+     */
+    public static void main(String[] args) {
+        BenchmarkConjuntoCerradoGrande medida = new BenchmarkConjuntoCerradoGrande();
+        long[] estados = medida.generarEstados(ESTADOS);
+        System.out.println("Estados: " + ESTADOS);
+        imprimirHuella("ConjuntoCerrado", () -> {
+            ConjuntoCerrado conjunto = new ConjuntoCerrado(CAPACIDAD_INICIAL, false);
+            for (long estado : estados) {
+                conjunto.agregar(estado);
+            }
+            return conjunto;
+        });
+        imprimirHuella("ConjuntoCerrado con g", () -> {
+            ConjuntoCerrado conjunto = new ConjuntoCerrado(CAPACIDAD_INICIAL, true);
+            for (long estado : estados) {
+                conjunto.mejorar(estado, 0);
+            }
+            return conjunto;
+        });
+        imprimirHuella("HashSet<Long>", () -> {
+            Set<Long> conjunto = new HashSet<>(CAPACIDAD_INICIAL);
+            for (long estado : estados) {
+                conjunto.add(estado);
+            }
+            return conjunto;
+        });
+        imprimirHuella("HashSet<String>", () -> {
+            Set<String> conjunto = new HashSet<>(CAPACIDAD_INICIAL);
+            for (long estado : estados) {
+                conjunto.add(medida.disposicion.decodificar(estado));
+            }
+            return conjunto;
+        });
+    }
+
+    private static void imprimirHuella(String nombre, Supplier<Object> llenar) {
+        long antes = heapUsado();
+        Object conjunto = llenar.get();
+        long despues = heapUsado();
+        System.out.printf("%-22s %6.1f bytes/estado  %6d MB%n", nombre, (despues - antes) / (double) ESTADOS,
+                (despues - antes) >> 20);
+        Reference.reachabilityFence(conjunto);
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
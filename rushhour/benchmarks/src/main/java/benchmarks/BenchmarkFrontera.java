@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import main.Busqueda;
+import main.Frontera;
+import main.FronteraCubetas;
+import main.FronteraMonticulo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QUE: Agregar y extraer NODOS nodos de cada implementación de Frontera.
+ * POR QUE: La frontera se toca una vez por nodo generado; el resultado es
+ * por pareja agregar + extraer. Los valores imitan los costes de UCS (un
+ * rango pequeño que crece poco a poco) y los IDs llegan en orden, como los
+ * inserta Busqueda.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkFrontera {
+
+    private static final int NODOS = 1 << 16;
+
+    @Param({Busqueda.FRONTERA_CUBETAS, Busqueda.FRONTERA_MONTICULO})
+    public String tipo;
+
+    private Frontera frontera;
+    private int[] valores;
+
+    @Setup
+    public void preparar() {
+        frontera = tipo.equals(Busqueda.FRONTERA_MONTICULO) ? new FronteraMonticulo() : new FronteraCubetas();
+        valores = new int[NODOS];
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < NODOS; i++) {
+            valores[i] = i / 512 + aleatorio.nextInt(30);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NODOS)
+    public int agregarExtraer() {
+        frontera.limpiar();
+        for (int i = 0; i < NODOS; i++) {
+            frontera.agregar(i, valores[i]);
+        }
+        int suma = 0;
+        while (!frontera.vacia()) {
+            suma += frontera.extraer();
+        }
+        return suma;
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import main.Nivel;
+import main.Tablero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QUE: Validación de niveles y construcción del tablero.
+ * POR QUE: Son el coste fijo de cada petición de solve, batch y question.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkNivel {
+
+    @Param({Corpus.FACIL, Corpus.MEDIO, Corpus.DIFICIL})
+    public String nivel;
+
+    private Nivel instancia;
+    private char[] casillas;
+
+    @Setup
+    public void preparar() {
+        instancia = new Nivel(Corpus.nivel(nivel));
+        casillas = instancia.getArrayLevel();
+    }
+
+    @Benchmark
+    public int verifyLevel() {
+        return instancia.verify_level();
+    }
+
+    @Benchmark
+    public int verifyLevelCasillas() {
+        return Nivel.verify_level(casillas);
+    }
+
+    @Benchmark
+    public Tablero createTablero() {
+        return Tablero.create_tablero(instancia);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import main.Nivel;
+import main.Sucesor;
+import main.Tablero;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * QUE: Generación de sucesores y aplicación de movimientos sobre Tablero.
+ * POR QUE: Es la API que usan los comandos successors y question --move;
+ * con -prof gc se ve cuánto crea cada llamada.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkTablero {
+
+    @Param({Corpus.FACIL, Corpus.MEDIO, Corpus.DIFICIL})
+    public String nivel;
+
+    private Tablero tablero;
+    private String movimiento;
+
+    @Setup
+    public void preparar() {
+        tablero = Tablero.create_tablero(new Nivel(Corpus.nivel(nivel)));
+        movimiento = Corpus.movimiento(nivel);
+    }
+
+    @Benchmark
+    public List<Sucesor> getSuccessors() {
+        return tablero.getSuccessors();
+    }
+
+    @Benchmark
+    public Tablero applyMove() {
+        return tablero.applyMove(movimiento);
+    }
+}
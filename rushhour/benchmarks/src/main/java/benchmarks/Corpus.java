@@ -0,0 +1,51 @@
+package benchmarks;
+
+/**
+ * QUE: Niveles fijos con los que se miden todos los benchmarks.
+ * POR QUE: Comparar resultados entre versiones solo tiene sentido si la
+ * entrada es siempre la misma. Cada nivel lleva un movimiento legal para
+ * medir applyMove.
+ */
+final class Corpus {
+
+    /** Nombres aceptados por los @Param de los benchmarks. */
+    static final String FACIL = "facil";
+    static final String MEDIO = "medio";
+    static final String DIFICIL = "dificil";
+
+    private Corpus() {
+    }
+
+    /**
+     * QUE: Nivel por nombre: fácil (2 movimientos), medio (14) y difícil
+     * (51).
+     */
+    static String nivel(String nombre) {
+        switch (nombre) {
+            case FACIL:
+                return "ooooBoooooBoAAooCoooooCoooooooooDDDo";
+            case MEDIO:
+                return "BBJoooHoJDDMHAAooMHoKEEMIoKLFFIGGLoo";
+            case DIFICIL:
+                return "GBBoLoGHIoLMGHIAAMCCCKoMooJKDDEEJFFo";
+            default:
+                throw new IllegalArgumentException("Nivel desconocido: " + nombre);
+        }
+    }
+
+    /**
+     * QUE: Un movimiento legal del nivel.
+     */
+    static String movimiento(String nombre) {
+        switch (nombre) {
+            case FACIL:
+                return "A+1";
+            case MEDIO:
+                return "A+2";
+            case DIFICIL:
+                return "F+1";
+            default:
+                throw new IllegalArgumentException("Nivel desconocido: " + nombre);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package main;
+
+/**
+ * QUE: Codifica una acción (vehículo, dirección, distancia) en un entero.
+ * POR QUE: La búsqueda guarda y compara acciones sin crear Strings; el texto
+ * "A+1" solo se construye cuando se imprime la solución.
+ */
+public final class Accion {
+
+    /** Acción del nodo raíz, que se imprime como "none". */
+    public static final int NINGUNA = -1;
+
+    private static final int BIT_NEGATIVA = 1 << 3;
+    private static final int MASCARA_DISTANCIA = 0x7;
+
+    private Accion() {
+    }
+
+    /**
+     * QUE: Empaqueta una acción: bits 0-2 distancia, bit 3 dirección '-' y el
+     * resto el índice del vehículo en la disposición.
+     * POR QUE: Cabe en un short (18 vehículos necesitan 9 bits en total).
+     */
+    public static int codificar(int vehiculo, boolean positiva, int distancia) {
+        return (vehiculo << 4) | (positiva ? 0 : BIT_NEGATIVA) | distancia;
+    }
+
+    public static int vehiculo(int accion) {
+        return accion >>> 4;
+    }
+
+    public static boolean esPositiva(int accion) {
+        return (accion & BIT_NEGATIVA) == 0;
+    }
+
+    public static int distancia(int accion) {
+        return accion & MASCARA_DISTANCIA;
+    }
+
+    /**
+     * QUE: Acción que deshace otra: mismo vehículo y distancia, dirección
+     * contraria.
+     * POR QUE: Todos los movimientos son reversibles; la búsqueda hacia atrás
+     * recorre los movimientos al revés y tiene que darles la vuelta.
+     */
+    public static int inversa(int accion) {
+        return accion ^ BIT_NEGATIVA;
+    }
+
+    /**
+     * QUE: Coste de una acción según el enunciado (6 - distancia).
+     * POR QUE: Evita guardar el coste junto a cada acción.
+     */
+    public static int costo(int accion) {
+        return 6 - distancia(accion);
+    }
+
+    /**
+     * QUE: Convierte una acción codificada en su texto (ej. "A+1").
+     * POR QUE: Formato de salida de sucesores y nodos.
+     */
+    public static String aTexto(Disposicion disposicion, int accion) {
+        if (accion == NINGUNA) {
+            return "none";
+        }
+        return "" + disposicion.getID(vehiculo(accion)) + (esPositiva(accion) ? '+' : '-') + distancia(accion);
+    }
+}
@@ -0,0 +1,222 @@
+package main;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * QUE: Base de datos en fichero con la distancia a la meta de cada estado de
+ * una componente, consultada por mapeo en memoria.
+ * POR QUE: Con las distancias exactas, resolver un nivel de la componente es
+ * seguir en cada paso un sucesor con distancia una menor: O(1) por consulta
+ * y sin búsqueda. El fichero se mapea, así que abrirlo no lo lee entero y
+ * varios procesos comparten las mismas páginas.
+ *
+ * Formato (big-endian):
+ *   int magia, int versión, int estados, int capacidad,
+ *   int longitud de la firma, firma de la Disposicion (UTF-8),
+ *   relleno hasta múltiplo de 8,
+ *   long[capacidad] estados (tabla de direccionamiento abierto, -1 vacío),
+ *   byte[capacidad] distancias.
+ *
+ * La distancia es el número de movimientos, así que el camino es óptimo para
+ * BFS, no para el coste 6 - distancia de UCS y A*.
+ */
+public class BaseDistancias implements Resolutor {
+
+    /** Devuelto por distancia cuando el estado no está en la base. */
+    public static final int NO_ENCONTRADO = -1;
+
+    private static final int MAGIA = 0x52484442;
+    private static final int VERSION = 1;
+    private static final long VACIO = -1L;
+
+    private final String firma;
+    private final int numEstados;
+    private final int mascara;
+    private final LongBuffer claves;
+    private final ByteBuffer distancias;
+
+    private long generados;
+    private long expandidos;
+    private long tiempoNanos;
+
+    private BaseDistancias(String firma, int numEstados, int capacidad, LongBuffer claves, ByteBuffer distancias) {
+        this.firma = firma;
+        this.numEstados = numEstados;
+        this.mascara = capacidad - 1;
+        this.claves = claves;
+        this.distancias = distancias;
+    }
+
+    /**
+     * QUE: Escribe la base de una componente ya explorada.
+     * POR QUE: La tabla se dimensiona a carga 0.5 para que las consultas
+     * sondeen pocos huecos; se escribe directamente sobre el fichero mapeado.
+     */
+    public static void escribir(EspacioEstados espacio, Path fichero) throws IOException {
+        byte[] firma = espacio.getDisposicion().firma().getBytes(StandardCharsets.UTF_8);
+        int n = espacio.getNumEstados();
+        int capacidad = Integer.highestOneBit(Math.max(16, n * 2) - 1) << 1;
+        long inicioClaves = alinear(20 + firma.length);
+        long tamano = inicioClaves + 9L * capacidad;
+        if (tamano > Integer.MAX_VALUE) {
+            throw new IOException("Componente demasiado grande para un solo fichero mapeado: " + n + " estados");
+        }
+
+        try (RandomAccessFile archivo = new RandomAccessFile(fichero.toFile(), "rw");
+                FileChannel canal = archivo.getChannel()) {
+            archivo.setLength(0);
+            archivo.setLength(tamano);
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+            buffer.putInt(MAGIA).putInt(VERSION).putInt(n).putInt(capacidad).putInt(firma.length).put(firma);
+
+            LongBuffer claves = vista(buffer, inicioClaves, capacidad * 8L).asLongBuffer();
+            ByteBuffer distancias = vista(buffer, inicioClaves + capacidad * 8L, capacidad);
+            for (int i = 0; i < capacidad; i++) {
+                claves.put(i, VACIO);
+            }
+            for (int k = 0; k < n; k++) {
+                long estado = espacio.getEstado(k);
+                int i = (int) ConjuntoCerrado.mezclar(estado) & (capacidad - 1);
+                while (claves.get(i) != VACIO) {
+                    i = (i + 1) & (capacidad - 1);
+                }
+                claves.put(i, estado);
+                distancias.put(i, (byte) espacio.getDistancia(k));
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * QUE: Abre una base escrita con escribir.
+     * POR QUE: Comprueba la cabecera; la firma la compara quien la usa.
+     */
+    public static BaseDistancias abrir(Path fichero) throws IOException {
+        try (RandomAccessFile archivo = new RandomAccessFile(fichero.toFile(), "r");
+                FileChannel canal = archivo.getChannel()) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.remaining() < 20 || buffer.getInt() != MAGIA || buffer.getInt() != VERSION) {
+                throw new IOException("No es una base de distancias: " + fichero);
+            }
+            int n = buffer.getInt();
+            int capacidad = buffer.getInt();
+            byte[] firma = new byte[buffer.getInt()];
+            buffer.get(firma);
+            long inicioClaves = alinear(20 + firma.length);
+            if (buffer.capacity() != inicioClaves + 9L * capacidad) {
+                throw new IOException("Base de distancias truncada: " + fichero);
+            }
+            return new BaseDistancias(new String(firma, StandardCharsets.UTF_8), n, capacidad,
+                    vista(buffer, inicioClaves, capacidad * 8L).asLongBuffer(),
+                    vista(buffer, inicioClaves + capacidad * 8L, capacidad));
+        }
+    }
+
+    private static long alinear(long posicion) {
+        return (posicion + 7) & ~7L;
+    }
+
+    private static ByteBuffer vista(ByteBuffer buffer, long inicio, long longitud) {
+        ByteBuffer copia = buffer.duplicate();
+        copia.position((int) inicio).limit((int) (inicio + longitud));
+        return copia.slice();
+    }
+
+    /**
+     * QUE: Distancia a la meta de un estado, SIN_DISTANCIA si no la alcanza o
+     * NO_ENCONTRADO si el estado no es de esta componente.
+     * POR QUE: Búsqueda en la tabla mapeada sin crear objetos.
+     */
+    public int distancia(long estado) {
+        int i = (int) ConjuntoCerrado.mezclar(estado) & mascara;
+        long clave;
+        while ((clave = claves.get(i)) != VACIO) {
+            if (clave == estado) {
+                return distancias.get(i) & 0xFF;
+            }
+            i = (i + 1) & mascara;
+        }
+        return NO_ENCONTRADO;
+    }
+
+    /**
+     * QUE: Construye el camino óptimo siguiendo las distancias.
+     * POR QUE: En cada paso se toma el primer sucesor (en el orden de
+     * getSuccessors) con distancia una menor; los IDs de los nodos son su
+     * posición en el camino. Devuelve null si el estado no está en la base o
+     * no alcanza ninguna meta.
+     */
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        Disposicion disposicion = inicial.getDisposicion();
+        generados = 1;
+        expandidos = 0;
+
+        long estado = inicial.getEstado();
+        int d = distancia(estado);
+        Nodo nodo = null;
+        if (d != NO_ENCONTRADO && d != EspacioEstados.SIN_DISTANCIA) {
+            nodo = new Nodo(0, null, Accion.NINGUNA, disposicion, estado, 0, 0, 0,
+                    Nodo.calcularValorRaiz("BFS", 0));
+            long[] siguiente = new long[1];
+            int[] accion = new int[1];
+            for (int k = 1; k <= d; k++) {
+                int objetivo = d - k;
+                accion[0] = Accion.NINGUNA;
+                expandidos++;
+                disposicion.generarSucesores(nodo.getEstado(), (a, costo, nuevoEstado) -> {
+                    if (accion[0] == Accion.NINGUNA && distancia(nuevoEstado) == objetivo) {
+                        accion[0] = a;
+                        siguiente[0] = nuevoEstado;
+                    }
+                    generados++;
+                });
+                int g = nodo.getCosto() + Accion.costo(accion[0]);
+                nodo = new Nodo(k, nodo, accion[0], disposicion, siguiente[0], g, k, 0,
+                        Nodo.calcularValor("BFS", g, k, 0));
+            }
+        }
+        tiempoNanos = System.nanoTime() - inicio;
+        return nodo;
+    }
+
+    public String getFirma() {
+        return firma;
+    }
+
+    public int getNumEstados() {
+        return numEstados;
+    }
+
+    @Override
+    public long getGenerados() {
+        return generados;
+    }
+
+    @Override
+    public long getExpandidos() {
+        return expandidos;
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    @Override
+    public List<String> getDetalles() {
+        List<String> detalles = new ArrayList<>();
+        detalles.add("Base de distancias: " + numEstados + " estados");
+        return detalles;
+    }
+}
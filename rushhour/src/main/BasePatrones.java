@@ -0,0 +1,361 @@
+package main;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * QUE: Bases de patrones de un nivel: para cada patrón (el coche rojo más un
+ * subconjunto de los vehículos que lo bloquean) el coste mínimo hasta la meta
+ * de cada colocación de esos vehículos, ignorando el resto.
+ * POR QUE: Quitar vehículos del tablero solo añade movimientos, y los
+ * movimientos de los vehículos quitados no cuestan nada en el tablero
+ * reducido, así que ese coste es una cota inferior del real (con el coste
+ * 6 - distancia de UCS, A* e IDA*). El máximo de varias bases sigue siendo
+ * admisible y consistente. Se calcula una vez con 'pdb build' y en la
+ * búsqueda cada consulta es un acceso a un byte del fichero mapeado.
+ *
+ * Cada entrada se indexa por las posiciones de los vehículos del patrón en
+ * base mixta (posición * paso). Las colocaciones con vehículos solapados no
+ * son alcanzables y quedan como INALCANZABLE, igual que las que no llegan a
+ * la meta; los costes mayores se guardan saturados en COSTE_MAXIMO.
+ *
+ * Formato (big-endian):
+ *   int magia, int versión, int longitud de la firma, firma (UTF-8),
+ *   int patrones, por patrón: int vehículos, int[vehículos] índices,
+ *   y a continuación byte[entradas] de cada patrón, en orden.
+ */
+public class BasePatrones implements Heuristica {
+
+    /** Vehículos por patrón, coche rojo incluido: como mucho 5^8 entradas. */
+    public static final int MAX_VEHICULOS_PATRON = 8;
+
+    /** Patrones por nivel. */
+    public static final int MAX_PATRONES = 4;
+
+    /** Entrada de una colocación que no alcanza la meta. */
+    public static final int INALCANZABLE = 0xFF;
+
+    /** Coste máximo que se guarda; los mayores se saturan a este valor. */
+    public static final int COSTE_MAXIMO = 0xFE;
+
+    private static final int MAGIA = 0x52485044;
+    private static final int VERSION = 1;
+
+    private final String firma;
+    private final int[][] vehiculos;
+    private final int[][] pasos;
+    private final ByteBuffer[] tablas;
+
+    private BasePatrones(String firma, int[][] vehiculos, ByteBuffer[] tablas, Disposicion disposicion) {
+        this.firma = firma;
+        this.vehiculos = vehiculos;
+        this.tablas = tablas;
+        this.pasos = new int[vehiculos.length][];
+        for (int p = 0; p < vehiculos.length; p++) {
+            this.pasos[p] = calcularPasos(disposicion, vehiculos[p]);
+        }
+    }
+
+    /**
+     * QUE: Elige los patrones de un nivel y calcula sus tablas.
+     * POR QUE: Es el trabajo de 'pdb build'; el resultado se puede usar
+     * directamente o escribir con escribir.
+     */
+    public static BasePatrones construir(Disposicion disposicion, long estado) {
+        int[][] vehiculos = elegirPatrones(disposicion, estado);
+        ByteBuffer[] tablas = new ByteBuffer[vehiculos.length];
+        for (int p = 0; p < vehiculos.length; p++) {
+            tablas[p] = ByteBuffer.wrap(calcularTabla(disposicion, vehiculos[p]));
+        }
+        return new BasePatrones(disposicion.firma(), vehiculos, tablas, disposicion);
+    }
+
+    /**
+     * QUE: Reparte los vehículos relevantes en patrones que comparten el
+     * núcleo (coche rojo y bloqueadores directos).
+     * POR QUE: La relevancia se mide por capas en el estado inicial: la capa
+     * 1 son los vehículos que ocupan casillas de la fila del coche rojo por
+     * delante de él; la capa k+1, los que ocupan casillas del carril de uno
+     * de la capa k. Sin los bloqueadores directos un patrón apenas informa,
+     * así que van en todos y las capas siguientes se reparten entre patrones
+     * en orden de capa. Los vehículos que no bloquean a nadie no se usan.
+     */
+    static int[][] elegirPatrones(Disposicion disposicion, long estado) {
+        int n = disposicion.numVehiculos();
+        int a = disposicion.indice('A');
+        int[] capa = new int[n];
+        Arrays.fill(capa, -1);
+        capa[a] = 0;
+
+        List<Integer> orden = new ArrayList<>();
+        orden.add(a);
+        for (int i = 0; i < orden.size(); i++) {
+            int v = orden.get(i);
+            int desde = (v == a) ? Disposicion.posicion(estado, a) + disposicion.getLongitud(a) : 0;
+            for (int k = desde; k < 6; k++) {
+                int w = disposicion.vehiculoEn(estado, disposicion.casilla(v, k, 0));
+                if (w >= 0 && capa[w] < 0) {
+                    capa[w] = capa[v] + 1;
+                    orden.add(w);
+                }
+            }
+        }
+
+        List<Integer> nucleo = new ArrayList<>();
+        List<Integer> resto = new ArrayList<>();
+        for (int v : orden) {
+            if (v == a) {
+                continue;
+            }
+            if (capa[v] == 1 && nucleo.size() < MAX_VEHICULOS_PATRON - 1) {
+                nucleo.add(v);
+            } else {
+                resto.add(v);
+            }
+        }
+
+        int libres = MAX_VEHICULOS_PATRON - 1 - nucleo.size();
+        List<int[]> patrones = new ArrayList<>();
+        int siguiente = 0;
+        do {
+            int tamano = (libres == 0) ? 0 : Math.min(libres, resto.size() - siguiente);
+            int[] patron = new int[1 + nucleo.size() + tamano];
+            patron[0] = a;
+            for (int i = 0; i < nucleo.size(); i++) {
+                patron[1 + i] = nucleo.get(i);
+            }
+            for (int i = 0; i < tamano; i++) {
+                patron[1 + nucleo.size() + i] = resto.get(siguiente + i);
+            }
+            siguiente += tamano;
+            patrones.add(patron);
+        } while (libres > 0 && siguiente < resto.size() && patrones.size() < MAX_PATRONES);
+        return patrones.toArray(new int[0][]);
+    }
+
+    private static int[] calcularPasos(Disposicion disposicion, int[] patron) {
+        int[] pasos = new int[patron.length];
+        int paso = 1;
+        for (int i = patron.length - 1; i >= 0; i--) {
+            pasos[i] = paso;
+            paso *= 7 - disposicion.getLongitud(patron[i]);
+        }
+        return pasos;
+    }
+
+    /**
+     * QUE: Calcula el coste mínimo hasta la meta de cada colocación del
+     * patrón con una búsqueda de coste uniforme hacia atrás desde las metas.
+     * POR QUE: Los movimientos son reversibles con el mismo coste, así que
+     * la búsqueda retrógrada sobre el grafo reducido es la misma búsqueda
+     * hacia delante partiendo de todas las metas a la vez. Los costes van de
+     * 1 a 5 y la frontera de cubetas los ordena sin comparaciones; un índice
+     * puede entrar varias veces y solo se expande la primera vez que sale,
+     * que es la de menor coste.
+     */
+    private static byte[] calcularTabla(Disposicion disposicion, int[] patron) {
+        int k = patron.length;
+        int[] pasos = calcularPasos(disposicion, patron);
+        int entradas = pasos[0] * (7 - disposicion.getLongitud(patron[0]));
+        int[] coste = new int[entradas];
+        Arrays.fill(coste, Integer.MAX_VALUE);
+        FronteraCubetas frontera = new FronteraCubetas();
+
+        // Metas: coche rojo (patron[0]) en la salida y el resto sin solaparse.
+        int[] pos = new int[k];
+        int meta = 6 - disposicion.getLongitud(patron[0]);
+        for (int i = 0; i < entradas; i++) {
+            decodificar(patron, pasos, i, pos);
+            if (pos[0] == meta && ocupacion(disposicion, patron, pos) != -1L) {
+                coste[i] = 0;
+                frontera.agregar(i, 0);
+            }
+        }
+
+        boolean[] expandido = new boolean[entradas];
+        while (!frontera.vacia()) {
+            int i = frontera.extraer();
+            if (expandido[i]) {
+                continue;
+            }
+            expandido[i] = true;
+            int c = coste[i];
+            decodificar(patron, pasos, i, pos);
+            long ocupacion = ocupacion(disposicion, patron, pos);
+            long ocupacionT = 0;
+            for (int j = 0; j < k; j++) {
+                ocupacionT |= disposicion.mascaraTraspuesta(patron[j], pos[j]);
+            }
+            for (int j = 0; j < k; j++) {
+                int v = patron[j];
+                int bits = disposicion.bitsCarril(v, ocupacion, ocupacionT);
+                int deslizamiento = disposicion.deslizamiento(v, pos[j], bits);
+                int signo = disposicion.isHorizontal(v) ? 1 : -1;
+                for (int dist = 1; dist <= Disposicion.maxPositiva(deslizamiento); dist++) {
+                    relajar(frontera, coste, i + signo * dist * pasos[j], c + 6 - dist);
+                }
+                for (int dist = 1; dist <= Disposicion.maxNegativa(deslizamiento); dist++) {
+                    relajar(frontera, coste, i - signo * dist * pasos[j], c + 6 - dist);
+                }
+            }
+        }
+
+        byte[] tabla = new byte[entradas];
+        for (int i = 0; i < entradas; i++) {
+            tabla[i] = (byte) ((coste[i] == Integer.MAX_VALUE) ? INALCANZABLE : Math.min(coste[i], COSTE_MAXIMO));
+        }
+        return tabla;
+    }
+
+    private static void relajar(FronteraCubetas frontera, int[] coste, int indice, int c) {
+        if (c < coste[indice]) {
+            coste[indice] = c;
+            frontera.agregar(indice, c);
+        }
+    }
+
+    private static void decodificar(int[] patron, int[] pasos, int indice, int[] pos) {
+        for (int j = 0; j < patron.length; j++) {
+            pos[j] = indice / pasos[j];
+            indice -= pos[j] * pasos[j];
+        }
+    }
+
+    /**
+     * QUE: Casillas ocupadas por el patrón, o -1 si dos vehículos se solapan.
+     * POR QUE: -1 no es una ocupación posible: el bit 63 nunca es una
+     * casilla.
+     */
+    private static long ocupacion(Disposicion disposicion, int[] patron, int[] pos) {
+        long ocupacion = 0;
+        for (int j = 0; j < patron.length; j++) {
+            long m = disposicion.mascara(patron[j], pos[j]);
+            if ((ocupacion & m) != 0) {
+                return -1L;
+            }
+            ocupacion |= m;
+        }
+        return ocupacion;
+    }
+
+    /**
+     * QUE: Escribe las tablas en un fichero.
+     * POR QUE: Se escribe sobre el fichero mapeado, como BaseDistancias.
+     */
+    public void escribir(Path fichero) throws IOException {
+        byte[] bytesFirma = firma.getBytes(StandardCharsets.UTF_8);
+        long tamano = 16 + bytesFirma.length;
+        for (int p = 0; p < vehiculos.length; p++) {
+            tamano += 4 + 4L * vehiculos[p].length + tablas[p].capacity();
+        }
+
+        try (RandomAccessFile archivo = new RandomAccessFile(fichero.toFile(), "rw");
+                FileChannel canal = archivo.getChannel()) {
+            archivo.setLength(0);
+            archivo.setLength(tamano);
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+            buffer.putInt(MAGIA).putInt(VERSION).putInt(bytesFirma.length).put(bytesFirma);
+            buffer.putInt(vehiculos.length);
+            for (int[] patron : vehiculos) {
+                buffer.putInt(patron.length);
+                for (int v : patron) {
+                    buffer.putInt(v);
+                }
+            }
+            for (ByteBuffer tabla : tablas) {
+                buffer.put(tabla.duplicate().clear());
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * QUE: Abre un fichero escrito con escribir para la disposición dada.
+     * POR QUE: Las tablas se quedan en el fichero mapeado; solo se leen las
+     * páginas que tocan las consultas. Los índices de los vehículos solo
+     * tienen sentido para la misma disposición, así que una firma distinta
+     * es un error.
+     */
+    public static BasePatrones abrir(Path fichero, Disposicion disposicion) throws IOException {
+        try (RandomAccessFile archivo = new RandomAccessFile(fichero.toFile(), "r");
+                FileChannel canal = archivo.getChannel()) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.remaining() < 16 || buffer.getInt() != MAGIA || buffer.getInt() != VERSION) {
+                throw new IOException("No es una base de patrones: " + fichero);
+            }
+            byte[] bytesFirma = new byte[buffer.getInt()];
+            buffer.get(bytesFirma);
+            String firma = new String(bytesFirma, StandardCharsets.UTF_8);
+            if (!firma.equals(disposicion.firma())) {
+                throw new IOException("La base de patrones es de otra disposicion de vehiculos");
+            }
+
+            int[][] vehiculos = new int[buffer.getInt()][];
+            for (int p = 0; p < vehiculos.length; p++) {
+                vehiculos[p] = new int[buffer.getInt()];
+                for (int j = 0; j < vehiculos[p].length; j++) {
+                    vehiculos[p][j] = buffer.getInt();
+                }
+            }
+            ByteBuffer[] tablas = new ByteBuffer[vehiculos.length];
+            for (int p = 0; p < vehiculos.length; p++) {
+                int[] pasos = calcularPasos(disposicion, vehiculos[p]);
+                int entradas = pasos[0] * (7 - disposicion.getLongitud(vehiculos[p][0]));
+                if (buffer.remaining() < entradas) {
+                    throw new IOException("Base de patrones truncada: " + fichero);
+                }
+                tablas[p] = buffer.slice(buffer.position(), entradas);
+                buffer.position(buffer.position() + entradas);
+            }
+            return new BasePatrones(firma, vehiculos, tablas, disposicion);
+        }
+    }
+
+    /**
+     * QUE: Máximo de las entradas de todos los patrones para el estado.
+     * POR QUE: Una consulta por patrón, sin crear objetos. INALCANZABLE se
+     * devuelve tal cual: si el tablero reducido no llega a la meta, el real
+     * tampoco.
+     */
+    @Override
+    public int evaluar(Disposicion disposicion, long estado) {
+        int h = 0;
+        for (int p = 0; p < tablas.length; p++) {
+            int[] patron = vehiculos[p];
+            int[] paso = pasos[p];
+            int indice = 0;
+            for (int j = 0; j < patron.length; j++) {
+                indice += Disposicion.posicion(estado, patron[j]) * paso[j];
+            }
+            h = Math.max(h, tablas[p].get(indice) & 0xFF);
+        }
+        return h;
+    }
+
+    public int getNumPatrones() {
+        return vehiculos.length;
+    }
+
+    /**
+     * QUE: Letras de los vehículos de un patrón, empezando por A.
+     */
+    public String getVehiculos(int patron, Disposicion disposicion) {
+        StringBuilder letras = new StringBuilder();
+        for (int v : vehiculos[patron]) {
+            letras.append(disposicion.getID(v));
+        }
+        return letras.toString();
+    }
+
+    public int getEntradas(int patron) {
+        return tablas[patron].capacity();
+    }
+}
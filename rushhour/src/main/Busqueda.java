@@ -0,0 +1,298 @@
+package main;
+
+/**
+ * QUE: Algoritmo de búsqueda en grafo con poda de estados repetidos.
+ * POR QUE: Une Nodo, Frontera y el generador de sucesores en un bucle común
+ * para todas las estrategias (BFS, DFS, UCS, A* y GREEDY).
+ */
+public class Busqueda implements Resolutor, VisitanteSucesores {
+
+    /** Valor de profundidadMaxima que indica búsqueda sin límite. */
+    public static final int SIN_LIMITE = -1;
+
+    /** Frontera de cubetas indexada por valor (por defecto). */
+    public static final String FRONTERA_CUBETAS = "bucket";
+
+    /** Frontera de montículo (PriorityQueue). */
+    public static final String FRONTERA_MONTICULO = "heap";
+
+    private final String estrategia;
+    private final Heuristica heuristica;
+    private final int profundidadMaxima;
+    private final boolean reabrir;
+    private final boolean porProfundidad;
+    private final String tipoFrontera;
+
+    private Frontera frontera;
+    private ConjuntoCerrado visitados;
+    private PoolNodos pool;
+    private Disposicion disposicion;
+
+    // Datos del nodo en expansión, leídos una vez por expansión.
+    private int actual;
+    private long estadoActual;
+    private long hashActual;
+    private int costoActual;
+    private int profundidadActual;
+
+    // Tiempo pasado dentro de visitar durante la expansión en curso; solo con
+    // Instrumentacion.ACTIVA, para descontarlo de la fase de sucesores.
+    private long nanosVisitas;
+
+    private long generados;
+    private long expandidos;
+    private long tiempoNanos;
+
+    private SalidaBuffer traza;
+
+    /**
+     * QUE: Configura una búsqueda.
+     * POR QUE: La estrategia decide el valor de cada nodo y la heurística su h.
+     */
+    public Busqueda(String estrategia, Heuristica heuristica, int profundidadMaxima) {
+        this(estrategia, heuristica, profundidadMaxima, FRONTERA_CUBETAS);
+    }
+
+    /**
+     * QUE: Configura una búsqueda eligiendo la implementación de la frontera.
+     * POR QUE: Ambas extraen en el mismo orden; permite comparar su
+     * rendimiento con la misma búsqueda.
+     */
+    public Busqueda(String estrategia, Heuristica heuristica, int profundidadMaxima, String tipoFrontera) {
+        this.tipoFrontera = tipoFrontera;
+        this.estrategia = estrategia;
+        this.heuristica = heuristica;
+        this.profundidadMaxima = profundidadMaxima;
+        this.reabrir = estrategia.equals("UCS") || estrategia.equals("A*");
+        this.porProfundidad = !reabrir && profundidadMaxima != SIN_LIMITE;
+    }
+
+    /**
+     * QUE: Escribe en 'traza' una línea con el formato de Nodo por cada nodo
+     * que sale de la frontera y no es un repetido, en ese orden.
+     * POR QUE: Permite volcar búsquedas completas (millones de líneas) sin
+     * crear objetos Nodo ni Strings; null la desactiva. Quien la pasa la
+     * vacía al terminar.
+     */
+    public void setTraza(SalidaBuffer traza) {
+        this.traza = traza;
+    }
+
+    /**
+     * QUE: Comprueba si una estrategia está soportada.
+     * POR QUE: Validar el argumento --strategy antes de lanzar la búsqueda.
+     */
+    public static boolean esEstrategiaValida(String estrategia) {
+        switch (estrategia) {
+            case "BFS":
+            case "DFS":
+            case "UCS":
+            case "A*":
+            case "GREEDY":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * QUE: Ejecuta la búsqueda desde un tablero inicial.
+     * POR QUE: Devuelve el nodo objetivo (con su camino a través de los
+     * padres) o null si no hay solución dentro del límite de profundidad.
+     * Los nodos viven en PoolNodos; solo se crean objetos Nodo para el camino
+     * de la solución.
+     */
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        disposicion = inicial.getDisposicion();
+        prepararEstructuras();
+        generados = 1;
+        expandidos = 0;
+
+        long estadoInicial = inicial.getEstado();
+        int h = heuristica.evaluar(disposicion, estadoInicial);
+        int raiz = pool.crear(estadoInicial, PoolNodos.SIN_PADRE, Accion.NINGUNA, 0, 0, h);
+        pool.setHash(raiz, inicial.getHash());
+        frontera.agregar(raiz, Nodo.calcularValorRaiz(estrategia, h));
+
+        int solucion = PoolNodos.SIN_PADRE;
+        while (!frontera.vacia()) {
+            int nodo = frontera.extraer();
+            long estado = pool.getEstado(nodo);
+            long hash = pool.getHash(nodo);
+            long t = Instrumentacion.ACTIVA ? System.nanoTime() : 0;
+            boolean nuevo = marcarExpandido(nodo, estado, hash);
+            if (Instrumentacion.ACTIVA) {
+                Instrumentacion.sumar(Instrumentacion.FASE_DUPLICADOS, t);
+                if (!nuevo) {
+                    Instrumentacion.duplicado();
+                }
+            }
+            if (!nuevo) {
+                continue;
+            }
+            if (traza != null) {
+                escribirTraza(nodo, estado);
+            }
+            if (disposicion.esMeta(estado)) {
+                solucion = nodo;
+                break;
+            }
+            int profundidad = pool.getProfundidad(nodo);
+            if (profundidadMaxima != SIN_LIMITE && profundidad >= profundidadMaxima) {
+                continue;
+            }
+
+            expandidos++;
+            actual = nodo;
+            estadoActual = estado;
+            hashActual = hash;
+            costoActual = pool.getCosto(nodo);
+            profundidadActual = profundidad;
+            if (Instrumentacion.ACTIVA) {
+                Instrumentacion.expandido(profundidad);
+                nanosVisitas = 0;
+                t = System.nanoTime();
+            }
+            disposicion.generarSucesores(estado, this);
+            if (Instrumentacion.ACTIVA) {
+                Instrumentacion.sumar(Instrumentacion.FASE_SUCESORES, t + nanosVisitas);
+            }
+        }
+
+        long t = Instrumentacion.ACTIVA ? System.nanoTime() : 0;
+        Nodo resultado = (solucion == PoolNodos.SIN_PADRE) ? null : pool.aNodo(solucion, disposicion, estrategia);
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.sumar(Instrumentacion.FASE_CAMINO, t);
+        }
+        tiempoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    /**
+     * QUE: Escribe la línea de traza de un nodo del pool.
+     * POR QUE: El valor se recalcula igual que en PoolNodos.aNodo, así que
+     * la línea coincide con la que tendría el nodo en el camino.
+     */
+    private void escribirTraza(int nodo, long estado) {
+        int padre = pool.getPadre(nodo);
+        int costo = pool.getCosto(nodo);
+        int profundidad = pool.getProfundidad(nodo);
+        int h = pool.getHeuristica(nodo);
+        int valor = (padre == PoolNodos.SIN_PADRE)
+                ? Nodo.calcularValorRaiz(estrategia, h)
+                : Nodo.calcularValor(estrategia, costo, profundidad, h);
+        traza.nodo(nodo, padre, disposicion, pool.getAccion(nodo), estado, costo, profundidad, h, valor);
+    }
+
+    /**
+     * QUE: Crea o vacía el pool, la frontera y la lista cerrada.
+     * POR QUE: Una misma Busqueda puede resolver varios niveles seguidos
+     * reutilizando la memoria ya reservada. DFS usa siempre la pila, sea
+     * cual sea la frontera elegida.
+     */
+    private void prepararEstructuras() {
+        if (pool == null) {
+            pool = new PoolNodos(1 << 16);
+            if (estrategia.equals("DFS")) {
+                frontera = new FronteraPila();
+            } else if (tipoFrontera.equals(FRONTERA_MONTICULO)) {
+                frontera = new FronteraMonticulo();
+            } else {
+                frontera = new FronteraCubetas();
+            }
+            if (Instrumentacion.ACTIVA) {
+                frontera = new FronteraInstrumentada(frontera);
+            }
+            visitados = new ConjuntoCerrado(1 << 16, reabrir || porProfundidad, true);
+        } else {
+            pool.limpiar();
+            frontera.limpiar();
+            visitados.limpiar();
+        }
+    }
+
+    /**
+     * QUE: Registra un nodo como expandido en la lista cerrada.
+     * POR QUE: Devuelve false si hay que descartarlo. En UCS y A* un estado
+     * se reabre cuando llega con un g estrictamente menor que el guardado,
+     * lo que mantiene la optimalidad con heurísticas no consistentes.
+     *
+     * Con --max-depth, en BFS, DFS y GREEDY se guarda la menor profundidad a
+     * la que se expandió cada estado y se reabre si llega a menos: el primer
+     * camino que lo alcanzó puede haber llegado cerca del límite y haberse
+     * cortado antes de la meta, que sí está al alcance desde más arriba.
+     */
+    private boolean marcarExpandido(int nodo, long estado, long hash) {
+        if (reabrir) {
+            return visitados.mejorar(estado, hash, pool.getCosto(nodo));
+        }
+        if (porProfundidad) {
+            return visitados.mejorar(estado, hash, pool.getProfundidad(nodo));
+        }
+        return visitados.agregar(estado, hash);
+    }
+
+    /**
+     * QUE: Añade a la frontera cada sucesor del nodo en expansión.
+     * POR QUE: Los estados ya expandidos (con un g igual o mejor, o con
+     * --max-depth a igual o menor profundidad) se descartan sin crear su
+     * nodo.
+     */
+    @Override
+    public void visitar(int accion, int costo, long nuevoEstado) {
+        long t = Instrumentacion.ACTIVA ? System.nanoTime() : 0;
+        int g = costoActual + costo;
+        int v = Accion.vehiculo(accion);
+        long hash = Disposicion.hashMovimiento(hashActual, v, Disposicion.posicion(estadoActual, v),
+                Disposicion.posicion(nuevoEstado, v));
+        boolean repetido;
+        if (reabrir) {
+            repetido = visitados.obtener(nuevoEstado, hash) <= g;
+        } else if (porProfundidad) {
+            repetido = visitados.obtener(nuevoEstado, hash) <= profundidadActual + 1;
+        } else {
+            repetido = visitados.contiene(nuevoEstado, hash);
+        }
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.sumar(Instrumentacion.FASE_DUPLICADOS, t);
+            if (repetido) {
+                Instrumentacion.duplicado();
+                nanosVisitas += System.nanoTime() - t;
+            }
+        }
+        if (repetido) {
+            return;
+        }
+        long th = Instrumentacion.ACTIVA ? System.nanoTime() : 0;
+        int h = heuristica.evaluar(disposicion, nuevoEstado);
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.sumar(Instrumentacion.FASE_HEURISTICA, th);
+        }
+        int profundidad = profundidadActual + 1;
+        int hijo = pool.crear(nuevoEstado, actual, accion, g, profundidad, h);
+        pool.setHash(hijo, hash);
+        frontera.agregar(hijo, Nodo.calcularValor(estrategia, g, profundidad, h));
+        generados++;
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.generado(profundidadActual);
+            nanosVisitas += System.nanoTime() - t;
+        }
+    }
+
+    @Override
+    public long getGenerados() {
+        return generados;
+    }
+
+    @Override
+    public long getExpandidos() {
+        return expandidos;
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+}
@@ -0,0 +1,273 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * QUE: Búsqueda en anchura paralela por capas sobre un ForkJoinPool.
+ * POR QUE: Todos los nodos de una capa se pueden expandir a la vez. El
+ * resultado (camino, IDs y contadores) es idéntico al de Busqueda con BFS:
+ * la anchura secuencial expande los nodos en orden de ID y poda un sucesor si
+ * su estado ya se expandió, así que basta con saber, para cada estado, el
+ * menor ID que lo contiene.
+ *
+ * Cada capa pasa por tres fases separadas por barreras:
+ * 1. En paralelo, cada nodo de la capa inserta su estado en la
+ *    TablaConcurrente quedándose el ID mínimo. Un nodo se expande solo si es
+ *    el ganador de su estado (lo mismo que hace la lista cerrada secuencial).
+ * 2. En paralelo, por trozos contiguos de la capa, cada ganador genera sus
+ *    sucesores y descarta los que tienen en la tabla un ID menor que el suyo:
+ *    capas anteriores o ganadores de esta capa expandidos antes que él.
+ * 3. Desde un único hilo, los trozos se copian en orden al PoolNodos, lo que
+ *    asigna los mismos IDs que la versión secuencial.
+ */
+public class BusquedaAnchuraParalela implements Resolutor {
+
+    /** Estrategia con la que se calculan los valores de los nodos. */
+    private static final String ESTRATEGIA = "BFS";
+
+    /** Nodos de la capa por trozo en las fases paralelas. */
+    private static final int NODOS_POR_TROZO = 512;
+
+    private final Heuristica heuristica;
+    private final int profundidadMaxima;
+    private final int numHilos;
+
+    private Disposicion disposicion;
+    private PoolNodos pool;
+    private TablaConcurrente visitados;
+    private final List<Trozo> trozos = new ArrayList<>();
+
+    /** Primer nodo de la capa en expansión; los trozos se cuentan desde él. */
+    private int inicioCapa;
+
+    private long generados;
+    private long expandidos;
+    private long tiempoNanos;
+    private final List<String> detalles = new ArrayList<>();
+
+    public BusquedaAnchuraParalela(Heuristica heuristica, int profundidadMaxima, int numHilos) {
+        this.heuristica = heuristica;
+        this.profundidadMaxima = profundidadMaxima;
+        this.numHilos = numHilos;
+    }
+
+    /**
+     * QUE: Ejecuta la anchura capa a capa hasta encontrar la meta.
+     * POR QUE: Como la secuencial, la meta se comprueba al expandir: se busca
+     * el primer ganador meta de la capa y solo se expanden los ganadores con
+     * ID menor.
+     */
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        disposicion = inicial.getDisposicion();
+        pool = new PoolNodos(1 << 16);
+        visitados = new TablaConcurrente(1 << 16);
+        generados = 1;
+        expandidos = 0;
+        detalles.clear();
+
+        long estadoInicial = inicial.getEstado();
+        pool.crear(estadoInicial, PoolNodos.SIN_PADRE, Accion.NINGUNA, 0, 0,
+                heuristica.evaluar(disposicion, estadoInicial));
+
+        ForkJoinPool hilos = new ForkJoinPool(numHilos);
+        int solucion = PoolNodos.SIN_PADRE;
+        int capas = 0;
+        try {
+            int desde = 0;
+            int profundidad = 0;
+            while (desde < pool.tamano()) {
+                int hasta = pool.tamano();
+                capas++;
+
+                visitados.asegurarCapacidad(hasta - desde);
+                hilos.invoke(new Tarea(desde, hasta, true));
+
+                int limite = hasta;
+                for (int n = desde; n < hasta; n++) {
+                    if (esGanador(n) && disposicion.esMeta(pool.getEstado(n))) {
+                        solucion = n;
+                        limite = n;
+                        break;
+                    }
+                }
+                boolean expandir = profundidadMaxima == Busqueda.SIN_LIMITE || profundidad < profundidadMaxima;
+                if (expandir && limite > desde) {
+                    inicioCapa = desde;
+                    while (trozos.size() * NODOS_POR_TROZO < limite - desde) {
+                        trozos.add(new Trozo());
+                    }
+                    hilos.invoke(new Tarea(desde, limite, false));
+                    copiarTrozos(desde, limite);
+                }
+                if (solucion != PoolNodos.SIN_PADRE) {
+                    break;
+                }
+                desde = hasta;
+                profundidad++;
+            }
+        } finally {
+            hilos.shutdown();
+        }
+        detalles.add("Hilos: " + numHilos);
+        detalles.add("Capas: " + capas);
+
+        Nodo resultado = (solucion == PoolNodos.SIN_PADRE) ? null : pool.aNodo(solucion, disposicion, ESTRATEGIA);
+        tiempoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    private boolean esGanador(int n) {
+        return visitados.obtener(pool.getEstado(n)) == n;
+    }
+
+    /**
+     * QUE: Tarea fork/join sobre un rango de nodos de la capa.
+     * POR QUE: Se divide por la mitad hasta el tamaño de un trozo; en la fase
+     * de deduplicación inserta estados y en la de expansión genera sucesores
+     * en el Trozo que corresponde al rango.
+     */
+    private final class Tarea extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int desde;
+        private final int hasta;
+        private final boolean deduplicar;
+
+        Tarea(int desde, int hasta, boolean deduplicar) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.deduplicar = deduplicar;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > NODOS_POR_TROZO) {
+                int medio = desde + ((hasta - desde) / NODOS_POR_TROZO / 2) * NODOS_POR_TROZO;
+                if (medio == desde) {
+                    medio = desde + NODOS_POR_TROZO;
+                }
+                invokeAll(new Tarea(desde, medio, deduplicar), new Tarea(medio, hasta, deduplicar));
+                return;
+            }
+            if (deduplicar) {
+                for (int n = desde; n < hasta; n++) {
+                    visitados.insertarMinimo(pool.getEstado(n), n);
+                }
+            } else {
+                expandirRango(desde, hasta, trozos.get((desde - inicioCapa) / NODOS_POR_TROZO));
+            }
+        }
+    }
+
+    /**
+     * QUE: Genera los sucesores de los ganadores de un rango de la capa.
+     * POR QUE: Solo lee el pool y la tabla, que no cambian durante la fase.
+     */
+    private void expandirRango(int desde, int hasta, Trozo trozo) {
+        trozo.limpiar();
+        for (int n = desde; n < hasta; n++) {
+            if (!esGanador(n)) {
+                continue;
+            }
+            trozo.expandidos++;
+            trozo.padre = n;
+            trozo.costoPadre = pool.getCosto(n);
+            disposicion.generarSucesores(pool.getEstado(n), trozo);
+        }
+    }
+
+    /**
+     * QUE: Copia en orden los sucesores de todos los trozos al pool.
+     * POR QUE: El orden de los trozos es el de sus padres, así que los IDs
+     * coinciden con los de la anchura secuencial.
+     */
+    private void copiarTrozos(int desde, int hasta) {
+        int numTrozos = (hasta - desde + NODOS_POR_TROZO - 1) / NODOS_POR_TROZO;
+        for (int t = 0; t < numTrozos; t++) {
+            Trozo trozo = trozos.get(t);
+            expandidos += trozo.expandidos;
+            for (int i = 0; i < trozo.tamano; i++) {
+                int padre = trozo.padres[i];
+                pool.crear(trozo.estados[i], padre, trozo.acciones[i], trozo.costos[i],
+                        pool.getProfundidad(padre) + 1, trozo.heuristicas[i]);
+            }
+            generados += trozo.tamano;
+        }
+    }
+
+    /**
+     * QUE: Sucesores generados por un trozo de la capa, en arrays paralelos.
+     * POR QUE: Cada trozo lo escribe un único hilo; se reutilizan entre capas.
+     */
+    private final class Trozo implements VisitanteSucesores {
+        long[] estados = new long[1024];
+        int[] padres = new int[1024];
+        int[] acciones = new int[1024];
+        int[] costos = new int[1024];
+        int[] heuristicas = new int[1024];
+        int tamano;
+        long expandidos;
+
+        // Padre en expansión, leído por visitar.
+        int padre;
+        int costoPadre;
+
+        void limpiar() {
+            tamano = 0;
+            expandidos = 0;
+        }
+
+        /**
+         * QUE: Guarda un sucesor salvo que su estado tenga un ID menor que el
+         * del padre en la tabla.
+         * POR QUE: Es exactamente la condición "ya expandido" de la anchura
+         * secuencial en el momento de expandir este padre.
+         */
+        @Override
+        public void visitar(int accion, int costo, long nuevoEstado) {
+            if (visitados.obtener(nuevoEstado) < padre) {
+                return;
+            }
+            if (tamano == estados.length) {
+                int capacidad = tamano * 2;
+                estados = Arrays.copyOf(estados, capacidad);
+                padres = Arrays.copyOf(padres, capacidad);
+                acciones = Arrays.copyOf(acciones, capacidad);
+                costos = Arrays.copyOf(costos, capacidad);
+                heuristicas = Arrays.copyOf(heuristicas, capacidad);
+            }
+            estados[tamano] = nuevoEstado;
+            padres[tamano] = padre;
+            acciones[tamano] = accion;
+            costos[tamano] = costoPadre + costo;
+            heuristicas[tamano] = heuristica.evaluar(disposicion, nuevoEstado);
+            tamano++;
+        }
+    }
+
+    @Override
+    public long getGenerados() {
+        return generados;
+    }
+
+    @Override
+    public long getExpandidos() {
+        return expandidos;
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    @Override
+    public List<String> getDetalles() {
+        return detalles;
+    }
+}
@@ -0,0 +1,257 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * QUE: Búsqueda en anchura bidireccional: una frontera avanza desde el estado
+ * inicial y otra retrocede desde el conjunto de estados meta hasta que se
+ * encuentran.
+ * POR QUE: Con coste unitario (número de movimientos) dos búsquedas de
+ * profundidad d/2 expanden muchos menos nodos que una de profundidad d. La
+ * meta no es un único estado sino todos los que tienen al coche rojo en la
+ * salida, así que la frontera hacia atrás arranca con todos ellos. Como todo
+ * movimiento es reversible, los predecesores de un estado son sus sucesores.
+ *
+ * Cada capa de cada dirección ocupa un rango contiguo de su PoolNodos, de modo
+ * que no hace falta cola: expandir una capa es recorrer ese rango.
+ */
+public class BusquedaBidireccional implements Resolutor, VisitanteSucesores {
+
+    /** Estrategia con la que se calculan los valores de los nodos impresos. */
+    private static final String ESTRATEGIA = "BFS";
+
+    private final int profundidadMaxima;
+    private final long[] metasDadas;
+
+    private Disposicion disposicion;
+    private PoolNodos adelante;
+    private PoolNodos atras;
+    private ConjuntoCerrado visitadosAdelante;
+    private ConjuntoCerrado visitadosAtras;
+
+    // Dirección y nodo en expansión, leídos por visitar.
+    private boolean haciaAdelante;
+    private int actual;
+    private int profundidadActual;
+
+    // Mejor encuentro de la capa: nodo en cada pool y longitud total.
+    private int encuentroAdelante;
+    private int encuentroAtras;
+    private int mejorLongitud;
+
+    private long generados;
+    private long expandidos;
+    private long tiempoNanos;
+    private final List<String> detalles = new ArrayList<>();
+
+    /**
+     * QUE: Configura la búsqueda.
+     * POR QUE: Si metasDadas es null las metas se obtienen enumerando la
+     * componente del estado inicial; si no, solo esos estados son meta.
+     */
+    public BusquedaBidireccional(int profundidadMaxima, long[] metasDadas) {
+        this.profundidadMaxima = profundidadMaxima;
+        this.metasDadas = metasDadas;
+    }
+
+    /**
+     * QUE: Ejecuta la búsqueda desde un tablero inicial.
+     * POR QUE: En cada paso se expande completa la capa más pequeña de las
+     * dos. Al encontrar un estado visto por la otra dirección se termina la
+     * capa y se queda el encuentro de menor longitud total, que es óptimo.
+     */
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        disposicion = inicial.getDisposicion();
+        adelante = new PoolNodos(1 << 12);
+        atras = new PoolNodos(1 << 12);
+        visitadosAdelante = new ConjuntoCerrado(1 << 12, true);
+        visitadosAtras = new ConjuntoCerrado(1 << 12, true);
+        generados = 0;
+        expandidos = 0;
+        detalles.clear();
+
+        long estadoInicial = inicial.getEstado();
+        long[] metas = (metasDadas != null) ? metasDadas : enumerarMetas(estadoInicial);
+
+        registrar(adelante, visitadosAdelante, estadoInicial, PoolNodos.SIN_PADRE, Accion.NINGUNA, 0, 0);
+        for (long meta : metas) {
+            if (!visitadosAtras.contiene(meta)) {
+                registrar(atras, visitadosAtras, meta, PoolNodos.SIN_PADRE, Accion.NINGUNA, 0, 0);
+            }
+        }
+
+        encuentroAdelante = PoolNodos.SIN_PADRE;
+        mejorLongitud = Integer.MAX_VALUE;
+        int encontrado = visitadosAtras.obtener(estadoInicial);
+        if (encontrado != ConjuntoCerrado.NO_ENCONTRADO) {
+            encuentroAdelante = 0;
+            encuentroAtras = encontrado;
+        }
+
+        int inicioAdelante = 0;
+        int inicioAtras = 0;
+        int profundidadAdelante = 0;
+        int profundidadAtras = 0;
+        while (encuentroAdelante == PoolNodos.SIN_PADRE) {
+            int finAdelante = adelante.tamano();
+            int finAtras = atras.tamano();
+            if (inicioAdelante == finAdelante || inicioAtras == finAtras) {
+                break;
+            }
+            if (profundidadMaxima != Busqueda.SIN_LIMITE && profundidadAdelante + profundidadAtras >= profundidadMaxima) {
+                break;
+            }
+
+            haciaAdelante = finAdelante - inicioAdelante <= finAtras - inicioAtras;
+            PoolNodos pool = haciaAdelante ? adelante : atras;
+            int desde = haciaAdelante ? inicioAdelante : inicioAtras;
+            int hasta = haciaAdelante ? finAdelante : finAtras;
+            for (int n = desde; n < hasta; n++) {
+                expandidos++;
+                actual = n;
+                profundidadActual = pool.getProfundidad(n);
+                disposicion.generarSucesores(pool.getEstado(n), this);
+            }
+
+            if (haciaAdelante) {
+                inicioAdelante = finAdelante;
+                profundidadAdelante++;
+            } else {
+                inicioAtras = finAtras;
+                profundidadAtras++;
+            }
+        }
+
+        detalles.add("Estados meta: " + metas.length);
+        detalles.add("Capas hacia delante: " + profundidadAdelante);
+        detalles.add("Capas hacia atras: " + profundidadAtras);
+
+        Nodo resultado = (encuentroAdelante == PoolNodos.SIN_PADRE) ? null : construirCamino();
+        tiempoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    /**
+     * QUE: Añade un nodo a un pool y su estado al conjunto de esa dirección.
+     * POR QUE: El conjunto guarda el índice del nodo para poder reconstruir
+     * el camino desde el otro lado al encontrarse.
+     */
+    private int registrar(PoolNodos pool, ConjuntoCerrado visitados, long estado, int padre, int accion, int costo,
+            int profundidad) {
+        int n = pool.crear(estado, padre, accion, costo, profundidad, 0);
+        visitados.mejorar(estado, n);
+        generados++;
+        return n;
+    }
+
+    /**
+     * QUE: Añade un sucesor a la capa siguiente de la dirección en expansión.
+     * POR QUE: Los estados se marcan al generarse (cada uno entra una sola vez
+     * por dirección). Si la otra dirección ya lo vio es un encuentro.
+     */
+    @Override
+    public void visitar(int accion, int costo, long nuevoEstado) {
+        PoolNodos pool = haciaAdelante ? adelante : atras;
+        ConjuntoCerrado propios = haciaAdelante ? visitadosAdelante : visitadosAtras;
+        ConjuntoCerrado otros = haciaAdelante ? visitadosAtras : visitadosAdelante;
+        if (propios.contiene(nuevoEstado)) {
+            return;
+        }
+        int hijo = registrar(pool, propios, nuevoEstado, actual, accion, pool.getCosto(actual) + costo,
+                profundidadActual + 1);
+
+        int otro = otros.obtener(nuevoEstado);
+        if (otro == ConjuntoCerrado.NO_ENCONTRADO) {
+            return;
+        }
+        PoolNodos otroPool = haciaAdelante ? atras : adelante;
+        int longitud = profundidadActual + 1 + otroPool.getProfundidad(otro);
+        if (longitud < mejorLongitud) {
+            mejorLongitud = longitud;
+            encuentroAdelante = haciaAdelante ? hijo : otro;
+            encuentroAtras = haciaAdelante ? otro : hijo;
+        }
+    }
+
+    /**
+     * QUE: Enumera la componente del estado inicial y devuelve sus estados meta.
+     * POR QUE: Sin una meta explícita es la única forma de sembrar la frontera
+     * hacia atrás solo con metas alcanzables. Es una anchura sin padres ni
+     * nodos: un long por estado en la cola y otro en el conjunto. Sus estados
+     * cuentan en generados y expandidos, porque es trabajo de la búsqueda y
+     * sin ellos BIBFS parecería más barata que BFS cuando no lo es.
+     */
+    private long[] enumerarMetas(long estadoInicial) {
+        ConjuntoCerrado vistos = new ConjuntoCerrado(1 << 12, false);
+        long[][] cola = { new long[1 << 12] };
+        int[] fin = { 0 };
+        long[] metas = new long[16];
+        int numMetas = 0;
+
+        vistos.agregar(estadoInicial);
+        cola[0][fin[0]++] = estadoInicial;
+        generados++;
+        for (int i = 0; i < fin[0]; i++) {
+            long estado = cola[0][i];
+            expandidos++;
+            if (disposicion.esMeta(estado)) {
+                if (numMetas == metas.length) {
+                    metas = Arrays.copyOf(metas, numMetas * 2);
+                }
+                metas[numMetas++] = estado;
+            }
+            disposicion.generarSucesores(estado, (accion, costo, nuevoEstado) -> {
+                if (vistos.agregar(nuevoEstado)) {
+                    if (fin[0] == cola[0].length) {
+                        cola[0] = Arrays.copyOf(cola[0], fin[0] * 2);
+                    }
+                    cola[0][fin[0]++] = nuevoEstado;
+                    generados++;
+                }
+            });
+        }
+        detalles.add("Estados de la componente: " + fin[0]);
+        return Arrays.copyOf(metas, numMetas);
+    }
+
+    /**
+     * QUE: Une las dos mitades del camino en un único camino del pool hacia
+     * delante.
+     * POR QUE: La mitad hacia atrás se recorre de padre en padre invirtiendo
+     * cada acción; al añadirla al pool hacia delante, aNodo construye los
+     * Nodo igual que en las demás búsquedas.
+     */
+    private Nodo construirCamino() {
+        int n = encuentroAdelante;
+        for (int m = encuentroAtras; atras.getPadre(m) != PoolNodos.SIN_PADRE; m = atras.getPadre(m)) {
+            int accion = Accion.inversa(atras.getAccion(m));
+            n = adelante.crear(atras.getEstado(atras.getPadre(m)), n, accion,
+                    adelante.getCosto(n) + Accion.costo(accion), adelante.getProfundidad(n) + 1, 0);
+        }
+        return adelante.aNodo(n, disposicion, ESTRATEGIA);
+    }
+
+    @Override
+    public long getGenerados() {
+        return generados;
+    }
+
+    @Override
+    public long getExpandidos() {
+        return expandidos;
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    @Override
+    public List<String> getDetalles() {
+        return detalles;
+    }
+}
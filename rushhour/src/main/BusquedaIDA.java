@@ -0,0 +1,293 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * QUE: Búsqueda A* por profundización iterativa (IDA*).
+ * POR QUE: En los niveles más difíciles la lista abierta de A* agota la
+ * memoria; IDA* repite búsquedas en profundidad con un umbral creciente de
+ * f = g + h y solo guarda el camino actual, así que su memoria es lineal en
+ * la profundidad de la solución (más una tabla de transposición acotada y
+ * opcional).
+ */
+public class BusquedaIDA implements Resolutor {
+
+    /** Entradas por defecto de la tabla de transposición. */
+    public static final int TABLA_POR_DEFECTO = 1 << 20;
+
+    private static final String ESTRATEGIA = "IDA*";
+
+    private final Heuristica heuristica;
+    private final int profundidadMaxima;
+    private final TablaTransposicion tabla;
+
+    private Disposicion disposicion;
+    private TableroMutable tablero;
+
+    private int umbral;
+    private int siguienteUmbral;
+    private int iteracion;
+    private int siguienteID;
+    private int longitudSolucion;
+
+    // Camino actual: datos del nodo en cada profundidad.
+    private int[] idCamino;
+    private int[] accionCamino;
+    private int[] costoCamino;
+    private int[] heuristicaCamino;
+    private long[] estadoCamino;
+
+    private long generados;
+    private long expandidos;
+    private long expandidosIteracion;
+    private long tiempoNanos;
+    private final List<String> detalles = new ArrayList<>();
+
+    /**
+     * QUE: Configura la búsqueda.
+     * POR QUE: entradasTabla = 0 desactiva la tabla de transposición.
+     */
+    public BusquedaIDA(Heuristica heuristica, int profundidadMaxima, int entradasTabla) {
+        this.heuristica = heuristica;
+        this.profundidadMaxima = profundidadMaxima;
+        this.tabla = (entradasTabla > 0) ? new TablaTransposicion(entradasTabla) : null;
+    }
+
+    /**
+     * QUE: Ejecuta IDA* desde un tablero inicial.
+     * POR QUE: Cada iteración explora en profundidad todos los nodos con
+     * f <= umbral; el siguiente umbral es el menor f que lo superó. Si la
+     * tabla de transposición se llenó, también se para cuando una iteración
+     * no cambia la tabla (ver TablaTransposicion.getCambios).
+     */
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        disposicion = inicial.getDisposicion();
+        tablero = new TableroMutable(disposicion, inicial.getEstado());
+        if (idCamino == null) {
+            reservarCamino(64);
+        }
+        if (tabla != null) {
+            tabla.limpiar();
+        }
+        generados = 1;
+        expandidos = 0;
+        detalles.clear();
+
+        umbral = heuristica.evaluar(disposicion, inicial.getEstado());
+        iteracion = 0;
+        boolean encontrada = false;
+
+        while (true) {
+            siguienteUmbral = Integer.MAX_VALUE;
+            siguienteID = 1;
+            expandidosIteracion = 0;
+            idCamino[0] = 0;
+            accionCamino[0] = Accion.NINGUNA;
+            costoCamino[0] = 0;
+            long cambiosAntes = (tabla != null) ? tabla.getCambios() : 0;
+
+            encontrada = buscar(0, 0, -1);
+
+            detalles.add("Umbral " + umbral + ": " + expandidosIteracion + " nodos expandidos");
+            iteracion++;
+            if (encontrada || siguienteUmbral == Integer.MAX_VALUE) {
+                break;
+            }
+            if (tabla != null && tabla.isLlena() && tabla.getCambios() == cambiosAntes) {
+                detalles.add("Tabla de transposicion llena y sin cambios: se para sin solucion"
+                        + " (con un --tt-size mayor podria encontrarla)");
+                break;
+            }
+            umbral = siguienteUmbral;
+        }
+        detalles.add(0, "Iteraciones: " + iteracion);
+
+        Nodo resultado = encontrada ? construirCamino() : null;
+        tiempoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    /**
+     * QUE: Búsqueda en profundidad acotada por el umbral desde el estado
+     * actual del tablero mutable.
+     * POR QUE: Aplica cada movimiento en el sitio, desciende y lo deshace. No
+     * se mueve dos veces seguidas el mismo vehículo: esos dos movimientos
+     * equivalen a uno solo más barato (o a ninguno). Tampoco se vuelve a un
+     * estado del camino actual.
+     */
+    private boolean buscar(int g, int profundidad, int ultimoVehiculo) {
+        long estado = tablero.getEstado();
+        int h = heuristica.evaluar(disposicion, estado);
+        int f = g + h;
+        estadoCamino[profundidad] = estado;
+        heuristicaCamino[profundidad] = h;
+
+        // Un estado ya visitado en esta iteración con g menor o igual no
+        // aporta nada, tampoco al siguiente umbral: su f ya se tuvo en cuenta
+        // por el camino más barato.
+        if (tabla != null && tabla.dominado(estado, tablero.getHash(), g, iteracion)) {
+            if (Instrumentacion.ACTIVA) {
+                Instrumentacion.duplicado();
+            }
+            return false;
+        }
+        if (f > umbral) {
+            if (f < siguienteUmbral) {
+                siguienteUmbral = f;
+            }
+            return false;
+        }
+        if (disposicion.esMeta(estado)) {
+            longitudSolucion = profundidad + 1;
+            return true;
+        }
+        if (profundidadMaxima != Busqueda.SIN_LIMITE && profundidad >= profundidadMaxima) {
+            return false;
+        }
+        if (tabla != null) {
+            tabla.registrar(estado, tablero.getHash(), g, iteracion);
+        }
+
+        expandidos++;
+        expandidosIteracion++;
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.expandido(profundidad);
+        }
+        if (profundidad + 1 == idCamino.length) {
+            reservarCamino(idCamino.length * 2);
+        }
+
+        for (int v = 0; v < disposicion.numVehiculos(); v++) {
+            if (v == ultimoVehiculo) {
+                continue;
+            }
+            int pos = tablero.posicion(v);
+            int bits = tablero.bitsCarril(v);
+            int deslizamiento = disposicion.deslizamiento(v, pos, bits);
+            int signo = disposicion.isHorizontal(v) ? 1 : -1;
+            int maxPositiva = Disposicion.maxPositiva(deslizamiento);
+            int maxNegativa = Disposicion.maxNegativa(deslizamiento);
+
+            for (int dist = 1; dist <= maxPositiva; dist++) {
+                if (probar(v, pos, pos + signo * dist, Accion.codificar(v, true, dist), g, profundidad)) {
+                    return true;
+                }
+            }
+            for (int dist = 1; dist <= maxNegativa; dist++) {
+                if (probar(v, pos, pos - signo * dist, Accion.codificar(v, false, dist), g, profundidad)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * QUE: Aplica un movimiento, desciende un nivel y lo deshace.
+     * POR QUE: Si el descenso encuentra la meta el movimiento se deja aplicado
+     * y el camino queda registrado en los arrays.
+     */
+    private boolean probar(int v, int pos, int nuevaPos, int accion, int g, int profundidad) {
+        if (enCamino(Disposicion.conPosicion(tablero.getEstado(), v, nuevaPos), profundidad)) {
+            return false;
+        }
+        int costo = g + Accion.costo(accion);
+        generados++;
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.generado(profundidad);
+        }
+        idCamino[profundidad + 1] = siguienteID++;
+        accionCamino[profundidad + 1] = accion;
+        costoCamino[profundidad + 1] = costo;
+
+        tablero.mover(v, nuevaPos);
+        boolean encontrada = buscar(costo, profundidad + 1, v);
+        if (!encontrada) {
+            tablero.mover(v, pos);
+        }
+        return encontrada;
+    }
+
+    /**
+     * QUE: Comprueba si un estado ya está en el camino actual (profundidades
+     * 0 a 'profundidad').
+     * POR QUE: Un ciclo vuelve a un estado del camino con más g, así que
+     * siempre deja algún f por encima del umbral; sin esta poda un nivel sin
+     * solución no agota nunca los umbrales. La tabla de transposición no
+     * basta porque, llena, ya no guarda los estados nuevos. Solo recorriendo
+     * caminos simples el árbol es finito y la búsqueda termina.
+     */
+    private boolean enCamino(long estado, int profundidad) {
+        for (int k = profundidad; k >= 0; k--) {
+            if (estadoCamino[k] == estado) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * QUE: Amplía los arrays del camino actual.
+     * POR QUE: La profundidad de la solución no se conoce de antemano.
+     */
+    private void reservarCamino(int capacidad) {
+        if (idCamino == null) {
+            idCamino = new int[capacidad];
+            accionCamino = new int[capacidad];
+            costoCamino = new int[capacidad];
+            heuristicaCamino = new int[capacidad];
+            estadoCamino = new long[capacidad];
+            return;
+        }
+        idCamino = Arrays.copyOf(idCamino, capacidad);
+        accionCamino = Arrays.copyOf(accionCamino, capacidad);
+        costoCamino = Arrays.copyOf(costoCamino, capacidad);
+        heuristicaCamino = Arrays.copyOf(heuristicaCamino, capacidad);
+        estadoCamino = Arrays.copyOf(estadoCamino, capacidad);
+    }
+
+    /**
+     * QUE: Crea los objetos Nodo del camino encontrado.
+     * POR QUE: Los IDs son el orden de generación dentro de la última
+     * iteración, así que el padre siempre tiene un ID menor.
+     */
+    private Nodo construirCamino() {
+        Nodo nodo = null;
+        for (int k = 0; k < longitudSolucion; k++) {
+            int valor = (k == 0)
+                    ? Nodo.calcularValorRaiz(ESTRATEGIA, heuristicaCamino[k])
+                    : Nodo.calcularValor(ESTRATEGIA, costoCamino[k], k, heuristicaCamino[k]);
+            nodo = new Nodo(idCamino[k], nodo, accionCamino[k], disposicion, estadoCamino[k], costoCamino[k], k,
+                    heuristicaCamino[k], valor);
+        }
+        return nodo;
+    }
+
+    @Override
+    public long getGenerados() {
+        return generados;
+    }
+
+    @Override
+    public long getExpandidos() {
+        return expandidos;
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    /**
+     * QUE: Número de iteraciones y nodos expandidos con cada umbral.
+     * POR QUE: Permite ver cuánto trabajo se repite entre iteraciones.
+     */
+    @Override
+    public List<String> getDetalles() {
+        return detalles;
+    }
+}
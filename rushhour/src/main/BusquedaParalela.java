@@ -0,0 +1,402 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * QUE: A* (o UCS) paralelo con distribución por hash (HDA*): cada hilo es
+ * dueño de los estados cuyo hash le corresponde y guarda sus nodos, su
+ * frontera y su lista cerrada sin compartirlos.
+ * POR QUE: Repartir por estado hace que la detección de repetidos sea local,
+ * sin tablas compartidas ni cerrojos. Los sucesores que pertenecen a otro
+ * hilo se le envían en lotes por una ColaConcurrente.
+ *
+ * Terminación: un único contador atómico suma los hilos activos y los lotes
+ * en vuelo. Enviar un lote suma 1 antes de encolarlo; un hilo activo que
+ * recibe un lote resta 1 al procesarlo; un hilo inactivo que lo recibe se
+ * activa heredando esa unidad; un hilo que se queda sin trabajo (y ha
+ * vaciado sus lotes de salida) resta la suya. Cuando el contador llega a 0
+ * no queda nadie que pueda generar trabajo y la búsqueda ha terminado.
+ *
+ * Optimalidad: la mejor meta encontrada (incumbente) poda todo nodo con
+ * f >= su coste; al terminar, todo nodo con f menor se ha expandido, así que
+ * con una heurística admisible el incumbente es óptimo.
+ */
+public class BusquedaParalela implements Resolutor {
+
+    /** Estados por lote enviado a otro hilo. */
+    private static final int TAMANO_LOTE = 128;
+
+    /** Incumbente inicial: coste máximo, sin nodo. */
+    private static final long SIN_INCUMBENTE = Long.MAX_VALUE;
+
+    private final String estrategia;
+    private final Heuristica heuristica;
+    private final int profundidadMaxima;
+    private final int numHilos;
+
+    private Disposicion disposicion;
+    private Trabajador[] trabajadores;
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicLong incumbente = new AtomicLong();
+    private volatile boolean terminado;
+
+    private long generados;
+    private long expandidos;
+    private long tiempoNanos;
+    private final List<String> detalles = new ArrayList<>();
+
+    /**
+     * QUE: Configura la búsqueda.
+     * POR QUE: La estrategia (UCS o A*) decide el valor de cada nodo.
+     */
+    public BusquedaParalela(String estrategia, Heuristica heuristica, int profundidadMaxima, int numHilos) {
+        this.estrategia = estrategia;
+        this.heuristica = heuristica;
+        this.profundidadMaxima = profundidadMaxima;
+        this.numHilos = numHilos;
+    }
+
+    /**
+     * QUE: Comprueba si una estrategia admite la búsqueda paralela.
+     * POR QUE: Solo las que ordenan por f = g + h (UCS con h = 0) conservan la
+     * optimalidad con la poda por incumbente.
+     */
+    public static boolean admiteEstrategia(String estrategia) {
+        return estrategia.equals("UCS") || estrategia.equals("A*");
+    }
+
+    /**
+     * QUE: Lanza los hilos, espera a que terminen y reconstruye el camino.
+     * POR QUE: El join de cada hilo hace visibles sus pools al hilo principal.
+     */
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        disposicion = inicial.getDisposicion();
+        detalles.clear();
+        terminado = false;
+        incumbente.set(SIN_INCUMBENTE);
+        pendientes.set(numHilos);
+
+        trabajadores = new Trabajador[numHilos];
+        for (int w = 0; w < numHilos; w++) {
+            trabajadores[w] = new Trabajador(w);
+        }
+        long estadoInicial = inicial.getEstado();
+        trabajadores[dueno(estadoInicial)].insertar(estadoInicial, PoolNodos.SIN_PADRE, Accion.NINGUNA, 0, 0);
+
+        Thread[] hilos = new Thread[numHilos];
+        for (int w = 0; w < numHilos; w++) {
+            hilos[w] = new Thread(trabajadores[w], "hda-" + w);
+            hilos[w].start();
+        }
+        for (Thread hilo : hilos) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Busqueda paralela interrumpida", e);
+            }
+        }
+
+        generados = 0;
+        expandidos = 0;
+        long enviados = 0;
+        for (Trabajador t : trabajadores) {
+            generados += t.generados;
+            expandidos += t.expandidos;
+            enviados += t.enviados;
+        }
+        detalles.add("Hilos: " + numHilos);
+        detalles.add("Estados enviados a otro hilo: " + enviados);
+        for (Trabajador t : trabajadores) {
+            detalles.add("Hilo " + t.indice + ": " + t.expandidos + " nodos expandidos");
+        }
+
+        long mejor = incumbente.get();
+        Nodo resultado = (mejor == SIN_INCUMBENTE) ? null : construirCamino((int) mejor);
+        tiempoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    /**
+     * QUE: Hilo dueño de un estado.
+     * POR QUE: Usa los bits altos del hash; los bajos indexan la lista cerrada
+     * del propio hilo y así no se correlacionan.
+     */
+    private int dueno(long estado) {
+        return (int) ((ConjuntoCerrado.mezclar(estado) >>> 33) % numHilos);
+    }
+
+    private int costeIncumbente() {
+        return (int) (incumbente.get() >>> 32);
+    }
+
+    /**
+     * QUE: Registra una meta si mejora al incumbente.
+     * POR QUE: Coste e ID global van en un único long para actualizarlos con
+     * un solo compareAndSet.
+     */
+    private void proponerMeta(int costo, int idGlobal) {
+        long propuesta = ((long) costo << 32) | (idGlobal & 0xFFFFFFFFL);
+        long actual = incumbente.get();
+        while ((propuesta >>> 32) < (actual >>> 32) && !incumbente.compareAndSet(actual, propuesta)) {
+            actual = incumbente.get();
+        }
+    }
+
+    /**
+     * QUE: Construye los objetos Nodo del camino desde la raíz hasta la meta.
+     * POR QUE: Cada padre es un ID global (índice local * hilos + hilo), así
+     * que el camino salta entre los pools de distintos hilos.
+     */
+    private Nodo construirCamino(int meta) {
+        List<Integer> camino = new ArrayList<>();
+        for (int id = meta; id != PoolNodos.SIN_PADRE; id = trabajadores[id % numHilos].pool.getPadre(id / numHilos)) {
+            camino.add(id);
+        }
+
+        Nodo nodo = null;
+        for (int k = camino.size() - 1; k >= 0; k--) {
+            int id = camino.get(k);
+            PoolNodos pool = trabajadores[id % numHilos].pool;
+            int n = id / numHilos;
+            int valor = (nodo == null)
+                    ? Nodo.calcularValorRaiz(estrategia, pool.getHeuristica(n))
+                    : Nodo.calcularValor(estrategia, pool.getCosto(n), pool.getProfundidad(n), pool.getHeuristica(n));
+            nodo = new Nodo(id, nodo, pool.getAccion(n), disposicion, pool.getEstado(n), pool.getCosto(n),
+                    pool.getProfundidad(n), pool.getHeuristica(n), valor);
+        }
+        return nodo;
+    }
+
+    /**
+     * QUE: Estados enviados de un hilo a otro, en arrays paralelos.
+     * POR QUE: Agrupar amortiza el coste de la cola concurrente y crea un
+     * objeto por lote en lugar de uno por estado.
+     */
+    private static final class Lote {
+        final long[] estados = new long[TAMANO_LOTE];
+        final int[] padres = new int[TAMANO_LOTE];
+        final int[] acciones = new int[TAMANO_LOTE];
+        final int[] costos = new int[TAMANO_LOTE];
+        final int[] profundidades = new int[TAMANO_LOTE];
+        int tamano;
+    }
+
+    /**
+     * QUE: Un hilo de la búsqueda con su pool, frontera y lista cerrada.
+     * POR QUE: Solo este hilo escribe en sus estructuras; los demás le hablan
+     * únicamente a través de su buzón.
+     */
+    private final class Trabajador implements Runnable, VisitanteSucesores {
+        private final int indice;
+        private final PoolNodos pool = new PoolNodos(1 << 14);
+        private final Frontera frontera = new FronteraCubetas();
+        private final ConjuntoCerrado visitados = new ConjuntoCerrado(1 << 14, true);
+        private final ColaConcurrente<Lote> buzon = new ColaConcurrente<>();
+        private final Lote[] salida = new Lote[numHilos];
+        private boolean activo = true;
+
+        // Datos del nodo en expansión, leídos por visitar.
+        private int actualGlobal;
+        private int costoActual;
+        private int profundidadActual;
+
+        private long generados;
+        private long expandidos;
+        private long enviados;
+
+        Trabajador(int indice) {
+            this.indice = indice;
+        }
+
+        /**
+         * QUE: Bucle principal: recibir, expandir y, sin trabajo, esperar.
+         * POR QUE: Los lotes de salida se vacían antes de declararse inactivo
+         * para que el contador de pendientes no llegue a 0 con estados sin
+         * entregar.
+         */
+        @Override
+        public void run() {
+            int esperas = 0;
+            while (true) {
+                recibir();
+                int nodo = siguienteNodo();
+                if (nodo != Frontera.VACIA) {
+                    esperas = 0;
+                    expandir(nodo);
+                    continue;
+                }
+
+                enviarTodo();
+                if (activo) {
+                    activo = false;
+                    if (pendientes.decrementAndGet() == 0) {
+                        terminado = true;
+                    }
+                }
+                if (terminado) {
+                    return;
+                }
+                if (++esperas < 64) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(50_000);
+                }
+            }
+        }
+
+        /**
+         * QUE: Inserta todos los estados de los lotes recibidos.
+         * POR QUE: Ver la explicación de la terminación en la clase.
+         */
+        private void recibir() {
+            Lote lote;
+            while ((lote = buzon.desencolar()) != null) {
+                for (int i = 0; i < lote.tamano; i++) {
+                    insertar(lote.estados[i], lote.padres[i], lote.acciones[i], lote.costos[i], lote.profundidades[i]);
+                }
+                if (activo) {
+                    pendientes.decrementAndGet();
+                } else {
+                    activo = true;
+                }
+            }
+        }
+
+        /**
+         * QUE: Extrae el siguiente nodo útil de la frontera o VACIA.
+         * POR QUE: Descarta los nodos superados por un g mejor del mismo
+         * estado y los que por g + h ya no mejoran al incumbente. La frontera
+         * solo se vacía entera cuando su propia clave (g en UCS, g + h en A*)
+         * alcanza al incumbente: solo entonces ninguno de los restantes puede
+         * mejorarlo.
+         */
+        private int siguienteNodo() {
+            while (!frontera.vacia()) {
+                int nodo = frontera.extraer();
+                int g = pool.getCosto(nodo);
+                if (g > visitados.obtener(pool.getEstado(nodo))) {
+                    continue;
+                }
+                int h = pool.getHeuristica(nodo);
+                int incumbenteActual = costeIncumbente();
+                if (Nodo.calcularValor(estrategia, g, pool.getProfundidad(nodo), h) >= incumbenteActual) {
+                    frontera.limpiar();
+                    return Frontera.VACIA;
+                }
+                if (g + h >= incumbenteActual) {
+                    continue;
+                }
+                return nodo;
+            }
+            return Frontera.VACIA;
+        }
+
+        private void expandir(int nodo) {
+            expandidos++;
+            actualGlobal = nodo * numHilos + indice;
+            costoActual = pool.getCosto(nodo);
+            profundidadActual = pool.getProfundidad(nodo);
+            disposicion.generarSucesores(pool.getEstado(nodo), this);
+        }
+
+        /**
+         * QUE: Entrega un sucesor a su dueño: directamente si es este hilo o
+         * por su lote de salida si es otro.
+         * POR QUE: Lo que ya no mejora al incumbente no se envía.
+         */
+        @Override
+        public void visitar(int accion, int costo, long nuevoEstado) {
+            int g = costoActual + costo;
+            if (g >= costeIncumbente()) {
+                return;
+            }
+            int destino = dueno(nuevoEstado);
+            if (destino == indice) {
+                insertar(nuevoEstado, actualGlobal, accion, g, profundidadActual + 1);
+                return;
+            }
+            Lote lote = salida[destino];
+            if (lote == null) {
+                lote = new Lote();
+                salida[destino] = lote;
+            }
+            int i = lote.tamano++;
+            lote.estados[i] = nuevoEstado;
+            lote.padres[i] = actualGlobal;
+            lote.acciones[i] = accion;
+            lote.costos[i] = g;
+            lote.profundidades[i] = profundidadActual + 1;
+            if (lote.tamano == TAMANO_LOTE) {
+                enviar(destino);
+            }
+        }
+
+        private void enviar(int destino) {
+            Lote lote = salida[destino];
+            salida[destino] = null;
+            enviados += lote.tamano;
+            pendientes.incrementAndGet();
+            trabajadores[destino].buzon.encolar(lote);
+        }
+
+        private void enviarTodo() {
+            for (int destino = 0; destino < numHilos; destino++) {
+                if (salida[destino] != null) {
+                    enviar(destino);
+                }
+            }
+        }
+
+        /**
+         * QUE: Añade un estado propio a la búsqueda de este hilo.
+         * POR QUE: Se descarta si ya llegó con un g igual o mejor (con uno
+         * peor se reabre). Las metas no se expanden: solo proponen incumbente.
+         */
+        void insertar(long estado, int padre, int accion, int g, int profundidad) {
+            if (g >= costeIncumbente() || !visitados.mejorar(estado, g)) {
+                return;
+            }
+            generados++;
+            if (disposicion.esMeta(estado)) {
+                int n = pool.crear(estado, padre, accion, g, profundidad, 0);
+                proponerMeta(g, n * numHilos + indice);
+                return;
+            }
+            int h = heuristica.evaluar(disposicion, estado);
+            if (g + h >= costeIncumbente()) {
+                return;
+            }
+            if (profundidadMaxima != Busqueda.SIN_LIMITE && profundidad >= profundidadMaxima) {
+                return;
+            }
+            int n = pool.crear(estado, padre, accion, g, profundidad, h);
+            frontera.agregar(n, Nodo.calcularValor(estrategia, g, profundidad, h));
+        }
+    }
+
+    @Override
+    public long getGenerados() {
+        return generados;
+    }
+
+    @Override
+    public long getExpandidos() {
+        return expandidos;
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    @Override
+    public List<String> getDetalles() {
+        return detalles;
+    }
+}
@@ -0,0 +1,297 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * QUE: Búsqueda en profundidad limitada (DLS) y en profundidad iterativa
+ * (IDDFS) sobre un único tablero mutable.
+ * POR QUE: Cada movimiento se aplica en el sitio y se deshace al volver, así
+ * que no hay frontera ni pool: la memoria es el camino actual (un hueco por
+ * nivel) y los sucesores de cada nivel se recorren sin guardarlos. DLS no
+ * pasa de --max-depth; IDDFS repite DLS con límites 0, 1, 2, ... y encuentra
+ * la solución con menos movimientos, como BFS.
+ *
+ * Como en IDA*, no se mueve dos veces seguidas el mismo vehículo, no se
+ * vuelve a un estado del camino actual y una tabla de transposición acotada
+ * (--tt-size, 0 la desactiva) poda los estados ya alcanzados a menos
+ * profundidad; con ella la memoria sigue siendo fija. Mientras la tabla no
+ * se llena, en un nivel sin solución IDDFS para cuando ninguna rama llega al
+ * límite. Si se llena, para cuando una iteración no cambia la tabla, y
+ * entonces una tabla demasiado pequeña puede dejar sin encontrar una
+ * solución que existe. Sin tabla el árbol de caminos simples es finito pero
+ * exponencial: termina, pero no en un tiempo razonable.
+ */
+public class BusquedaProfundidad implements Resolutor {
+
+    private final String estrategia;
+    private final Heuristica heuristica;
+    private final int profundidadMaxima;
+    private final TablaTransposicion tabla;
+
+    private Disposicion disposicion;
+    private TableroMutable tablero;
+
+    private int limite;
+    private boolean cortada;
+    private int iteracion;
+    private int siguienteID;
+    private int longitudSolucion;
+
+    // Camino actual: datos del nodo en cada profundidad.
+    private int[] idCamino;
+    private int[] accionCamino;
+    private int[] costoCamino;
+    private long[] estadoCamino;
+
+    private long generados;
+    private long expandidos;
+    private long expandidosIteracion;
+    private long tiempoNanos;
+    private final List<String> detalles = new ArrayList<>();
+
+    /**
+     * QUE: Configura la búsqueda.
+     * POR QUE: estrategia es "DLS" o "IDDFS"; DLS necesita una profundidad
+     * máxima y en IDDFS es opcional. La heurística solo da la h que se
+     * imprime en el camino.
+     */
+    public BusquedaProfundidad(String estrategia, Heuristica heuristica, int profundidadMaxima, int entradasTabla) {
+        if (estrategia.equals("DLS") && profundidadMaxima == Busqueda.SIN_LIMITE) {
+            throw new IllegalArgumentException("DLS necesita una profundidad maxima");
+        }
+        this.estrategia = estrategia;
+        this.heuristica = heuristica;
+        this.profundidadMaxima = profundidadMaxima;
+        this.tabla = (entradasTabla > 0) ? new TablaTransposicion(entradasTabla) : null;
+    }
+
+    /**
+     * QUE: Comprueba si una estrategia la resuelve esta clase.
+     */
+    public static boolean esEstrategiaValida(String estrategia) {
+        return estrategia.equals("DLS") || estrategia.equals("IDDFS");
+    }
+
+    /**
+     * QUE: Ejecuta la búsqueda desde un tablero inicial.
+     * POR QUE: IDDFS termina cuando encuentra la meta, cuando ninguna rama
+     * llegó al límite (no hay nada más profundo), al alcanzar --max-depth o
+     * cuando la tabla está llena y una iteración no la cambió.
+     */
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        disposicion = inicial.getDisposicion();
+        tablero = new TableroMutable(disposicion, inicial.getEstado());
+        if (idCamino == null) {
+            reservarCamino(64);
+        }
+        if (tabla != null) {
+            tabla.limpiar();
+        }
+        generados = 1;
+        expandidos = 0;
+        detalles.clear();
+
+        boolean iterativa = estrategia.equals("IDDFS");
+        limite = iterativa ? 0 : profundidadMaxima;
+        iteracion = 0;
+        boolean encontrada = false;
+
+        while (true) {
+            cortada = false;
+            siguienteID = 1;
+            expandidosIteracion = 0;
+            idCamino[0] = 0;
+            accionCamino[0] = Accion.NINGUNA;
+            costoCamino[0] = 0;
+            long cambiosAntes = (tabla != null) ? tabla.getCambios() : 0;
+
+            encontrada = buscar(0, -1);
+
+            detalles.add("Limite " + limite + ": " + expandidosIteracion + " nodos expandidos");
+            iteracion++;
+            if (encontrada || !iterativa || !cortada
+                    || (profundidadMaxima != Busqueda.SIN_LIMITE && limite >= profundidadMaxima)) {
+                break;
+            }
+            if (tabla != null && tabla.isLlena() && tabla.getCambios() == cambiosAntes) {
+                detalles.add("Tabla de transposicion llena y sin cambios: se para sin solucion"
+                        + " (con un --tt-size mayor podria encontrarla)");
+                break;
+            }
+            limite++;
+        }
+        detalles.add(0, "Iteraciones: " + iteracion);
+
+        Nodo resultado = encontrada ? construirCamino() : null;
+        tiempoNanos = System.nanoTime() - inicio;
+        return resultado;
+    }
+
+    /**
+     * QUE: Búsqueda en profundidad hasta el límite desde el estado actual
+     * del tablero mutable.
+     * POR QUE: Los nodos del límite se comprueban como meta pero no se
+     * expanden, igual que con --max-depth en Busqueda.
+     */
+    private boolean buscar(int profundidad, int ultimoVehiculo) {
+        long estado = tablero.getEstado();
+        estadoCamino[profundidad] = estado;
+
+        if (disposicion.esMeta(estado)) {
+            longitudSolucion = profundidad + 1;
+            return true;
+        }
+        // Un estado ya alcanzado a menos profundidad (o a la misma en esta
+        // iteración) no se expande ni cuenta como rama cortada.
+        if (tabla != null && tabla.dominado(estado, tablero.getHash(), profundidad, iteracion)) {
+            if (Instrumentacion.ACTIVA) {
+                Instrumentacion.duplicado();
+            }
+            return false;
+        }
+        if (profundidad >= limite) {
+            cortada = true;
+            return false;
+        }
+        if (tabla != null) {
+            tabla.registrar(estado, tablero.getHash(), profundidad, iteracion);
+        }
+
+        expandidos++;
+        expandidosIteracion++;
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.expandido(profundidad);
+        }
+        if (profundidad + 1 == idCamino.length) {
+            reservarCamino(idCamino.length * 2);
+        }
+
+        for (int v = 0; v < disposicion.numVehiculos(); v++) {
+            if (v == ultimoVehiculo) {
+                continue;
+            }
+            int pos = tablero.posicion(v);
+            int deslizamiento = disposicion.deslizamiento(v, pos, tablero.bitsCarril(v));
+            int signo = disposicion.isHorizontal(v) ? 1 : -1;
+            int maxPositiva = Disposicion.maxPositiva(deslizamiento);
+            int maxNegativa = Disposicion.maxNegativa(deslizamiento);
+
+            for (int dist = 1; dist <= maxPositiva; dist++) {
+                if (probar(v, pos, pos + signo * dist, Accion.codificar(v, true, dist), profundidad)) {
+                    return true;
+                }
+            }
+            for (int dist = 1; dist <= maxNegativa; dist++) {
+                if (probar(v, pos, pos - signo * dist, Accion.codificar(v, false, dist), profundidad)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * QUE: Aplica un movimiento, desciende un nivel y lo deshace.
+     * POR QUE: Si el descenso encuentra la meta el movimiento se deja aplicado
+     * y el camino queda registrado en los arrays.
+     */
+    private boolean probar(int v, int pos, int nuevaPos, int accion, int profundidad) {
+        if (enCamino(Disposicion.conPosicion(tablero.getEstado(), v, nuevaPos), profundidad)) {
+            return false;
+        }
+        generados++;
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.generado(profundidad);
+        }
+        idCamino[profundidad + 1] = siguienteID++;
+        accionCamino[profundidad + 1] = accion;
+        costoCamino[profundidad + 1] = costoCamino[profundidad] + Accion.costo(accion);
+
+        tablero.mover(v, nuevaPos);
+        boolean encontrada = buscar(profundidad + 1, v);
+        if (!encontrada) {
+            tablero.mover(v, pos);
+        }
+        return encontrada;
+    }
+
+    /**
+     * QUE: Comprueba si un estado ya está en el camino actual (profundidades
+     * 0 a 'profundidad').
+     * POR QUE: Con ciclos siempre hay alguna rama que llega al límite, así que
+     * IDDFS no pararía nunca en un nivel sin solución. Recorriendo solo
+     * caminos simples, 'cortada' significa que queda algo más profundo.
+     */
+    private boolean enCamino(long estado, int profundidad) {
+        for (int k = profundidad; k >= 0; k--) {
+            if (estadoCamino[k] == estado) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * QUE: Amplía los arrays del camino actual.
+     * POR QUE: La profundidad de la solución no se conoce de antemano.
+     */
+    private void reservarCamino(int capacidad) {
+        if (idCamino == null) {
+            idCamino = new int[capacidad];
+            accionCamino = new int[capacidad];
+            costoCamino = new int[capacidad];
+            estadoCamino = new long[capacidad];
+            return;
+        }
+        idCamino = Arrays.copyOf(idCamino, capacidad);
+        accionCamino = Arrays.copyOf(accionCamino, capacidad);
+        costoCamino = Arrays.copyOf(costoCamino, capacidad);
+        estadoCamino = Arrays.copyOf(estadoCamino, capacidad);
+    }
+
+    /**
+     * QUE: Crea los objetos Nodo del camino encontrado.
+     * POR QUE: Los IDs son el orden de generación dentro de la última
+     * iteración; la h solo se calcula para los nodos del camino.
+     */
+    private Nodo construirCamino() {
+        Nodo nodo = null;
+        for (int k = 0; k < longitudSolucion; k++) {
+            int h = heuristica.evaluar(disposicion, estadoCamino[k]);
+            int valor = (k == 0)
+                    ? Nodo.calcularValorRaiz(estrategia, h)
+                    : Nodo.calcularValor(estrategia, costoCamino[k], k, h);
+            nodo = new Nodo(idCamino[k], nodo, accionCamino[k], disposicion, estadoCamino[k], costoCamino[k], k, h,
+                    valor);
+        }
+        return nodo;
+    }
+
+    @Override
+    public long getGenerados() {
+        return generados;
+    }
+
+    @Override
+    public long getExpandidos() {
+        return expandidos;
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    /**
+     * QUE: Número de iteraciones y nodos expandidos con cada límite.
+     * POR QUE: Permite ver cuánto trabajo se repite entre iteraciones.
+     */
+    @Override
+    public List<String> getDetalles() {
+        return detalles;
+    }
+}
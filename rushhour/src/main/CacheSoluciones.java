@@ -0,0 +1,266 @@
+package main;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * QUE: Caché persistente de soluciones en un fichero mapeado en memoria,
+ * compartida entre procesos mediante cerrojos de fichero.
+ * POR QUE: Los mismos niveles se resuelven una y otra vez desde muchas JVM;
+ * con la caché un nivel repetido se responde leyendo unos pocos bytes, sin
+ * buscar.
+ *
+ * Formato del fichero (big-endian):
+ *   cabecera: int magia, int versión, int capacidad, int entradas,
+ *             long fin de los datos;
+ *   índice:   capacidad huecos de (long clave, long posición), con
+ *             direccionamiento abierto (posición 0 = hueco vacío);
+ *   datos:    registros añadidos al final, nunca modificados:
+ *             int longitud del registro, short longitud del texto, texto
+ *             de la clave (UTF-8), int número de nodos y por nodo
+ *             int ID, short acción, short h e int valor.
+ *
+ * El texto completo de la clave se guarda y se compara, así que una
+ * colisión del hash de 64 bits nunca devuelve la solución de otro nivel. Las
+ * lecturas toman un cerrojo compartido y las escrituras uno exclusivo; dentro
+ * de la JVM los métodos están sincronizados, porque un FileLock no puede
+ * solaparse entre hilos del mismo proceso. El índice tiene capacidad fija:
+ * cuando se llena, las soluciones nuevas simplemente no se guardan.
+ */
+public class CacheSoluciones {
+
+    /** Huecos del índice de un fichero nuevo. */
+    public static final int CAPACIDAD_POR_DEFECTO = 1 << 18;
+
+    private static final int MAGIA = 0x52484353;
+    private static final int VERSION = 1;
+    private static final int TAMANO_CABECERA = 24;
+    private static final int TAMANO_HUECO = 16;
+    private static final int TAMANO_NODO = 12;
+    private static final double CARGA_MAXIMA = 0.75;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer indice;
+    private final int capacidad;
+    private final long inicioDatos;
+    private MappedByteBuffer datos;
+
+    private CacheSoluciones(FileChannel canal, MappedByteBuffer indice, int capacidad) {
+        this.canal = canal;
+        this.indice = indice;
+        this.capacidad = capacidad;
+        this.inicioDatos = TAMANO_CABECERA + (long) capacidad * TAMANO_HUECO;
+    }
+
+    /**
+     * QUE: Abre la caché de un fichero o la crea si no existe.
+     * POR QUE: La creación se hace con el cerrojo exclusivo para que dos
+     * procesos que arrancan a la vez no escriban dos cabeceras.
+     */
+    @SuppressWarnings("resource")
+    public static CacheSoluciones abrir(Path fichero) throws IOException {
+        FileChannel canal = new RandomAccessFile(fichero.toFile(), "rw").getChannel();
+        try {
+            int capacidad;
+            FileLock cerrojo = canal.lock();
+            try {
+                if (canal.size() == 0) {
+                    capacidad = CAPACIDAD_POR_DEFECTO;
+                    ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+                    cabecera.putInt(MAGIA).putInt(VERSION).putInt(capacidad).putInt(0)
+                            .putLong(TAMANO_CABECERA + (long) capacidad * TAMANO_HUECO).flip();
+                    canal.write(cabecera, 0);
+                    canal.write(ByteBuffer.allocate(1), TAMANO_CABECERA + (long) capacidad * TAMANO_HUECO - 1);
+                } else {
+                    ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+                    canal.read(cabecera, 0);
+                    cabecera.flip();
+                    if (cabecera.remaining() < TAMANO_CABECERA || cabecera.getInt() != MAGIA
+                            || cabecera.getInt() != VERSION) {
+                        throw new IOException("No es una cache de soluciones: " + fichero);
+                    }
+                    capacidad = cabecera.getInt();
+                }
+            } finally {
+                cerrojo.release();
+            }
+            long tamanoIndice = TAMANO_CABECERA + (long) capacidad * TAMANO_HUECO;
+            MappedByteBuffer indice = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoIndice);
+            return new CacheSoluciones(canal, indice, capacidad);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * QUE: Hash de 64 bits del texto de una clave (FNV-1a más mezcla final).
+     * POR QUE: Reparte las claves por el índice; la igualdad se comprueba
+     * después con el texto completo.
+     */
+    static long hash(String clave) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < clave.length(); i++) {
+            h ^= clave.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return ConjuntoCerrado.mezclar(h);
+    }
+
+    /**
+     * QUE: Busca la solución guardada para una clave y la reconstruye sobre
+     * el tablero inicial.
+     * POR QUE: Los estados no se guardan: se recalculan aplicando las
+     * acciones desde el estado inicial. Devuelve null si no está.
+     */
+    public synchronized Nodo buscar(String clave, Tablero inicial) throws IOException {
+        long posicion;
+        FileLock cerrojo = canal.lock(0, Long.MAX_VALUE, true);
+        try {
+            posicion = localizar(clave);
+            if (posicion == 0) {
+                return null;
+            }
+            return leerSolucion(posicion, inicial);
+        } finally {
+            cerrojo.release();
+        }
+    }
+
+    /**
+     * QUE: Añade la solución de una clave al final del fichero y la publica
+     * en el índice.
+     * POR QUE: Con el cerrojo exclusivo se vuelve a buscar la clave, por si
+     * otro proceso la guardó mientras este buscaba. Devuelve false si ya
+     * estaba o el índice está lleno.
+     */
+    public synchronized boolean guardar(String clave, Nodo solucion) throws IOException {
+        FileLock cerrojo = canal.lock();
+        try {
+            if (localizar(clave) != 0 || entradas() + 1 > capacidad * CARGA_MAXIMA) {
+                return false;
+            }
+            List<Nodo> camino = solucion.getCamino();
+            byte[] texto = clave.getBytes(StandardCharsets.UTF_8);
+            int longitud = 4 + 2 + texto.length + 4 + camino.size() * TAMANO_NODO;
+            ByteBuffer registro = ByteBuffer.allocate(longitud);
+            registro.putInt(longitud).putShort((short) texto.length).put(texto).putInt(camino.size());
+            for (Nodo nodo : camino) {
+                registro.putInt(nodo.getID()).putShort((short) nodo.getAccionCodificada())
+                        .putShort((short) nodo.getHeuristica()).putInt(nodo.getValor());
+            }
+            registro.flip();
+
+            long posicion = finDatos();
+            while (registro.hasRemaining()) {
+                canal.write(registro, posicion + registro.position());
+            }
+            indice.putLong(16, posicion + longitud);
+
+            long h = hash(clave);
+            int i = (int) h & (capacidad - 1);
+            while (indice.getLong(hueco(i) + 8) != 0) {
+                i = (i + 1) & (capacidad - 1);
+            }
+            indice.putLong(hueco(i), h);
+            indice.putLong(hueco(i) + 8, posicion);
+            indice.putInt(12, entradas() + 1);
+            return true;
+        } finally {
+            cerrojo.release();
+        }
+    }
+
+    private int entradas() {
+        return indice.getInt(12);
+    }
+
+    private long finDatos() {
+        return indice.getLong(16);
+    }
+
+    private static int hueco(int i) {
+        return TAMANO_CABECERA + i * TAMANO_HUECO;
+    }
+
+    /**
+     * QUE: Posición del registro de una clave o 0 si no está.
+     * POR QUE: Sondeo lineal por el índice mapeado comparando primero el hash
+     * y después el texto del registro.
+     */
+    private long localizar(String clave) throws IOException {
+        long h = hash(clave);
+        int i = (int) h & (capacidad - 1);
+        long posicion;
+        while ((posicion = indice.getLong(hueco(i) + 8)) != 0) {
+            if (indice.getLong(hueco(i)) == h && clave.equals(leerClave(posicion))) {
+                return posicion;
+            }
+            i = (i + 1) & (capacidad - 1);
+        }
+        return 0;
+    }
+
+    /**
+     * QUE: Vista de los datos que llega al menos hasta 'fin'.
+     * POR QUE: Otros procesos añaden registros; cuando uno cae fuera de lo
+     * mapeado se vuelve a mapear hasta el final actual de los datos.
+     */
+    private ByteBuffer vistaDatos(long fin) throws IOException {
+        if (datos == null || inicioDatos + datos.capacity() < fin) {
+            long tamano = finDatos() - inicioDatos;
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("Cache de soluciones demasiado grande para mapearla");
+            }
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, inicioDatos, tamano);
+        }
+        return datos;
+    }
+
+    private String leerClave(long posicion) throws IOException {
+        ByteBuffer vista = vistaDatos(posicion + 6);
+        int base = (int) (posicion - inicioDatos);
+        byte[] texto = new byte[vista.getShort(base + 4)];
+        vistaDatos(posicion + 6 + texto.length).get(base + 6, texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * QUE: Reconstruye la cadena de Nodo de un registro.
+     * POR QUE: Coste y profundidad se acumulan a partir de las acciones, así
+     * que la salida es idéntica a la de la búsqueda que la guardó.
+     */
+    private Nodo leerSolucion(long posicion, Tablero inicial) throws IOException {
+        ByteBuffer vista = vistaDatos(posicion + 4);
+        int base = (int) (posicion - inicioDatos);
+        vista = vistaDatos(posicion + vista.getInt(base));
+        int p = base + 6 + vista.getShort(base + 4);
+        int numNodos = vista.getInt(p);
+        p += 4;
+
+        Disposicion disposicion = inicial.getDisposicion();
+        long estado = inicial.getEstado();
+        int costo = 0;
+        Nodo nodo = null;
+        for (int k = 0; k < numNodos; k++, p += TAMANO_NODO) {
+            int accion = vista.getShort(p + 4);
+            if (accion != Accion.NINGUNA) {
+                int v = Accion.vehiculo(accion);
+                int signo = (Accion.esPositiva(accion) == disposicion.isHorizontal(v)) ? 1 : -1;
+                estado = Disposicion.conPosicion(estado, v,
+                        Disposicion.posicion(estado, v) + signo * Accion.distancia(accion));
+                costo += Accion.costo(accion);
+            }
+            nodo = new Nodo(vista.getInt(p), nodo, accion, disposicion, estado, costo, k, vista.getShort(p + 6),
+                    vista.getInt(p + 8));
+        }
+        return nodo;
+    }
+}
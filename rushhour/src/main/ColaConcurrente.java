@@ -0,0 +1,71 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * QUE: Cola sin bloqueos de varios productores y un único consumidor (MPSC),
+ * en forma de lista enlazada.
+ * POR QUE: En la búsqueda paralela cada hilo recibe los estados que le
+ * envían todos los demás. Encolar es un getAndSet sobre la cabeza y
+ * desencolar solo lo hace el dueño, así que ninguna operación toma un cerrojo
+ * ni reintenta.
+ */
+public class ColaConcurrente<T> {
+
+    /**
+     * QUE: Eslabón de la lista.
+     * POR QUE: 'siguiente' se publica con lazySet tras el getAndSet; el
+     * consumidor lo lee como volatile.
+     */
+    private static final class Eslabon<T> {
+        private T valor;
+        private volatile Eslabon<T> siguiente;
+
+        Eslabon(T valor) {
+            this.valor = valor;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Eslabon, Eslabon> SIGUIENTE =
+            AtomicReferenceFieldUpdater.newUpdater(Eslabon.class, Eslabon.class, "siguiente");
+
+    /** Último eslabón encolado (extremo de los productores). */
+    private final AtomicReference<Eslabon<T>> cabeza;
+
+    /** Eslabón ya consumido que precede al primero pendiente. */
+    private Eslabon<T> cola;
+
+    public ColaConcurrente() {
+        Eslabon<T> centinela = new Eslabon<>(null);
+        this.cabeza = new AtomicReference<>(centinela);
+        this.cola = centinela;
+    }
+
+    /**
+     * QUE: Encola un valor; puede llamarse desde cualquier hilo.
+     * POR QUE: Entre el getAndSet y el enlace el consumidor puede ver la cola
+     * momentáneamente vacía; el valor aparece en cuanto se completa el enlace.
+     */
+    public void encolar(T valor) {
+        Eslabon<T> nuevo = new Eslabon<>(valor);
+        Eslabon<T> anterior = cabeza.getAndSet(nuevo);
+        SIGUIENTE.lazySet(anterior, nuevo);
+    }
+
+    /**
+     * QUE: Desencola el valor más antiguo o devuelve null si no hay ninguno.
+     * POR QUE: Solo puede llamarlo el hilo consumidor.
+     */
+    public T desencolar() {
+        Eslabon<T> siguiente = cola.siguiente;
+        if (siguiente == null) {
+            return null;
+        }
+        T valor = siguiente.valor;
+        siguiente.valor = null;
+        cola = siguiente;
+        return valor;
+    }
+}
@@ -0,0 +1,227 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * QUE: Conjunto de estados ya expandidos (lista cerrada) con direccionamiento
+ * abierto sobre un long[] y sondeo lineal; opcionalmente guarda el mejor
+ * coste g de cada estado.
+ * POR QUE: Un HashSet de Strings o de Long cuesta decenas de bytes por estado
+ * y un objeto por entrada; aquí cada estado ocupa 8 bytes (12 con g) y las
+ * búsquedas no crean objetos.
+ *
+ * El hueco inicial sale de mezclar el estado o, si se crea con hash
+ * Zobrist, del hash que el llamador mantiene de forma incremental (los
+ * métodos con parámetro 'hash'). En ambos casos se compara el estado
+ * completo, así que una colisión de hash nunca confunde dos estados.
+ */
+public class ConjuntoCerrado {
+
+    /** Valor devuelto por obtener cuando el estado no está en el conjunto. */
+    public static final int NO_ENCONTRADO = Integer.MAX_VALUE;
+
+    /** Los estados usan como mucho 54 bits, así que -1 nunca es un estado. */
+    private static final long VACIO = -1L;
+
+    private static final double CARGA_MAXIMA = 0.75;
+
+    private long[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamano;
+    private int umbral;
+    private final boolean zobrist;
+
+    /**
+     * QUE: Crea un conjunto con capacidad para al menos 'capacidad' estados.
+     * POR QUE: Reservar de antemano evita redimensionados en búsquedas
+     * grandes; con guardarValores se almacena además el mejor g.
+     */
+    public ConjuntoCerrado(int capacidad, boolean guardarValores) {
+        this(capacidad, guardarValores, false);
+    }
+
+    /**
+     * QUE: Crea un conjunto eligiendo el hash que decide el hueco.
+     * POR QUE: Con zobrist los métodos sin hash y los redimensionados lo
+     * calculan con Disposicion.hashZobrist, así que coinciden con el hash
+     * incremental de la búsqueda.
+     */
+    public ConjuntoCerrado(int capacidad, boolean guardarValores, boolean zobrist) {
+        this.zobrist = zobrist;
+        int huecos = Integer.highestOneBit(Math.max(16, (int) (capacidad / CARGA_MAXIMA)) - 1) << 1;
+        this.claves = new long[huecos];
+        Arrays.fill(this.claves, VACIO);
+        this.valores = guardarValores ? new int[huecos] : null;
+        this.mascara = huecos - 1;
+        this.umbral = (int) (huecos * CARGA_MAXIMA);
+    }
+
+    /**
+     * QUE: Mezcla los bits de un estado (finalizador de MurmurHash3).
+     * POR QUE: Los estados difieren en pocos bits bajos; sin mezclar se
+     * agruparían en huecos consecutivos y el sondeo lineal degeneraría.
+     */
+    static long mezclar(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    /**
+     * QUE: Localiza el hueco de un estado: el que lo contiene o el primer
+     * hueco vacío de su secuencia de sondeo.
+     * POR QUE: Base común de todas las operaciones.
+     */
+    private int buscarHueco(long estado) {
+        return buscarHueco(estado, zobrist ? Disposicion.hashZobrist(estado) : mezclar(estado));
+    }
+
+    private int buscarHueco(long estado, long hash) {
+        int i = (int) hash & mascara;
+        while (claves[i] != VACIO && claves[i] != estado) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    /**
+     * QUE: Comprueba si un estado ya está en el conjunto.
+     * POR QUE: Poda de repetidos al generar sucesores.
+     */
+    public boolean contiene(long estado) {
+        return claves[buscarHueco(estado)] == estado;
+    }
+
+    /**
+     * QUE: contiene con el hash Zobrist del estado ya calculado.
+     */
+    public boolean contiene(long estado, long hash) {
+        return claves[buscarHueco(estado, hash)] == estado;
+    }
+
+    /**
+     * QUE: Añade un estado.
+     * POR QUE: Devuelve false si ya estaba, igual que Set.add.
+     */
+    public boolean agregar(long estado) {
+        return agregarEn(buscarHueco(estado), estado);
+    }
+
+    /**
+     * QUE: agregar con el hash Zobrist del estado ya calculado.
+     */
+    public boolean agregar(long estado, long hash) {
+        return agregarEn(buscarHueco(estado, hash), estado);
+    }
+
+    private boolean agregarEn(int i, long estado) {
+        if (claves[i] == estado) {
+            return false;
+        }
+        insertarEn(i, estado, 0);
+        return true;
+    }
+
+    /**
+     * QUE: Devuelve el mejor g guardado para un estado o NO_ENCONTRADO.
+     * POR QUE: UCS y A* comparan el g de un nodo con el mejor conocido.
+     */
+    public int obtener(long estado) {
+        int i = buscarHueco(estado);
+        return claves[i] == estado ? valores[i] : NO_ENCONTRADO;
+    }
+
+    /**
+     * QUE: obtener con el hash Zobrist del estado ya calculado.
+     */
+    public int obtener(long estado, long hash) {
+        int i = buscarHueco(estado, hash);
+        return claves[i] == estado ? valores[i] : NO_ENCONTRADO;
+    }
+
+    /**
+     * QUE: Guarda g para un estado si es nuevo o mejora el valor guardado.
+     * POR QUE: Permite reabrir estados cuando se encuentra un camino más
+     * barato (heurísticas no consistentes). Devuelve true si se actualizó.
+     */
+    public boolean mejorar(long estado, int g) {
+        return mejorarEn(buscarHueco(estado), estado, g);
+    }
+
+    /**
+     * QUE: mejorar con el hash Zobrist del estado ya calculado.
+     */
+    public boolean mejorar(long estado, long hash, int g) {
+        return mejorarEn(buscarHueco(estado, hash), estado, g);
+    }
+
+    private boolean mejorarEn(int i, long estado, int g) {
+        if (claves[i] == estado) {
+            if (g < valores[i]) {
+                valores[i] = g;
+                return true;
+            }
+            return false;
+        }
+        insertarEn(i, estado, g);
+        return true;
+    }
+
+    /**
+     * QUE: Escribe un estado nuevo en un hueco vacío.
+     * POR QUE: Mantiene el contador y dispara el redimensionado.
+     */
+    private void insertarEn(int i, long estado, int g) {
+        claves[i] = estado;
+        if (valores != null) {
+            valores[i] = g;
+        }
+        if (++tamano > umbral) {
+            redimensionar();
+        }
+    }
+
+    /**
+     * QUE: Duplica la tabla y reinserta todos los estados.
+     * POR QUE: Mantener la carga por debajo de CARGA_MAXIMA para que el
+     * sondeo lineal siga siendo corto.
+     */
+    private void redimensionar() {
+        long[] viejasClaves = claves;
+        int[] viejosValores = valores;
+
+        claves = new long[viejasClaves.length << 1];
+        Arrays.fill(claves, VACIO);
+        valores = (viejosValores != null) ? new int[claves.length] : null;
+        mascara = claves.length - 1;
+        umbral = (int) (claves.length * CARGA_MAXIMA);
+
+        for (int j = 0; j < viejasClaves.length; j++) {
+            long estado = viejasClaves[j];
+            if (estado != VACIO) {
+                int i = buscarHueco(estado);
+                claves[i] = estado;
+                if (valores != null) {
+                    valores[i] = viejosValores[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * QUE: Vacía el conjunto conservando la memoria reservada.
+     * POR QUE: Reutilizar la tabla entre búsquedas sucesivas.
+     */
+    public void limpiar() {
+        Arrays.fill(claves, VACIO);
+        tamano = 0;
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+}
@@ -0,0 +1,507 @@
+package main;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * QUE: Describe la disposición fija de los vehículos de un nivel (ID,
+ * orientación, longitud y carril) y codifica cada estado en un único long.
+ * POR QUE: Durante la búsqueda solo cambia la posición de cada vehículo dentro
+ * de su carril, así que un estado cabe en 3 bits por vehículo en lugar de una
+ * matriz 6x6 más un String de 36 caracteres.
+ */
+public final class Disposicion {
+
+    /**
+     * Bits que ocupa la posición de un vehículo dentro del long. Un vehículo
+     * mide al menos 2 casillas, así que su posición va de 0 a 4.
+     */
+    public static final int BITS_POSICION = 3;
+
+    /**
+     * Máximo de vehículos que caben en un tablero 6x6 (36 casillas / 2).
+     * 18 * 3 = 54 bits, por lo que el estado siempre cabe en un long.
+     */
+    public static final int MAX_VEHICULOS = 18;
+
+    private static final long MASCARA_POSICION = (1L << BITS_POSICION) - 1;
+
+    /** Las 6 casillas de un carril una vez desplazado a los bits bajos. */
+    private static final int MASCARA_CARRIL = 0x3F;
+
+    /** Bit centinela justo después del carril: actúa como el borde del tablero. */
+    private static final int BORDE_CARRIL = 1 << 6;
+
+    /**
+     * Claves Zobrist, una por hueco de vehículo y posición, generadas con una
+     * semilla fija para que los hashes sean los mismos en cada ejecución.
+     */
+    private static final long[] ZOBRIST = crearClavesZobrist();
+
+    private final char[] ids;
+    private final boolean[] horizontal;
+    private final int[] longitud;
+    private final int[] carril;
+    private final int[] indicePorLetra;
+    private final long[][] mascara;
+    private final long[][] mascaraTraspuesta;
+    private final byte[][] deslizamientos;
+
+    /**
+     * QUE: Construye la disposición a partir de sus vectores ya ordenados por ID.
+     * POR QUE: Solo se invoca desde desdeCasillas, que garantiza la coherencia.
+     */
+    private Disposicion(char[] ids, boolean[] horizontal, int[] longitud, int[] carril) {
+        this.ids = ids;
+        this.horizontal = horizontal;
+        this.longitud = longitud;
+        this.carril = carril;
+        this.indicePorLetra = new int[26];
+        Arrays.fill(this.indicePorLetra, -1);
+        for (int v = 0; v < ids.length; v++) {
+            this.indicePorLetra[ids[v] - 'A'] = v;
+        }
+
+        this.mascara = new long[ids.length][];
+        this.mascaraTraspuesta = new long[ids.length][];
+        for (int v = 0; v < ids.length; v++) {
+            int posiciones = 7 - longitud[v];
+            this.mascara[v] = new long[posiciones];
+            this.mascaraTraspuesta[v] = new long[posiciones];
+            for (int pos = 0; pos < posiciones; pos++) {
+                for (int k = 0; k < longitud[v]; k++) {
+                    int c = casilla(v, pos, k);
+                    this.mascara[v][pos] |= 1L << c;
+                    this.mascaraTraspuesta[v][pos] |= 1L << ((c % 6) * 6 + c / 6);
+                }
+            }
+        }
+
+        this.deslizamientos = new byte[ids.length][];
+        for (int v = 0; v < ids.length; v++) {
+            this.deslizamientos[v] = crearDeslizamientos(horizontal[v], longitud[v]);
+        }
+    }
+
+    /**
+     * QUE: Tabla de distancias máximas '+' y '-' de un vehículo para cada
+     * posición y cada patrón de ocupación de su carril.
+     * POR QUE: Se calcula una vez por nivel; durante la búsqueda la
+     * generación de movimientos pasa a ser una consulta. La entrada
+     * (pos << 6) | bits guarda (maxPositiva << 4) | maxNegativa, con el
+     * sentido de '+' según la orientación ya resuelto.
+     */
+    private static byte[] crearDeslizamientos(boolean horizontal, int longitud) {
+        int posiciones = 7 - longitud;
+        byte[] tabla = new byte[posiciones << 6];
+        for (int pos = 0; pos < posiciones; pos++) {
+            for (int bits = 0; bits <= MASCARA_CARRIL; bits++) {
+                int mayores = libresHaciaMayores(bits, pos, longitud);
+                int menores = libresHaciaMenores(bits, pos);
+                int maxPositiva = horizontal ? mayores : menores;
+                int maxNegativa = horizontal ? menores : mayores;
+                tabla[(pos << 6) | bits] = (byte) ((maxPositiva << 4) | maxNegativa);
+            }
+        }
+        return tabla;
+    }
+
+    /**
+     * QUE: Extrae la disposición de una matriz de casillas válida.
+     * POR QUE: Se calcula una sola vez por nivel; todos los estados que genera
+     * la búsqueda comparten la misma instancia.
+     */
+    public static Disposicion desdeCasillas(char[][] casillas) {
+        int[] primera = new int[26];
+        int[] cuenta = new int[26];
+        Arrays.fill(primera, -1);
+
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                char c = casillas[i][j];
+                if (c >= 'A' && c <= 'Z') {
+                    if (primera[c - 'A'] < 0) {
+                        primera[c - 'A'] = i * 6 + j;
+                    }
+                    cuenta[c - 'A']++;
+                }
+            }
+        }
+
+        int n = 0;
+        for (int l = 0; l < 26; l++) {
+            if (primera[l] >= 0) {
+                n++;
+            }
+        }
+
+        char[] ids = new char[n];
+        boolean[] horizontal = new boolean[n];
+        int[] longitud = new int[n];
+        int[] carril = new int[n];
+
+        int v = 0;
+        for (int l = 0; l < 26; l++) {
+            if (primera[l] < 0) {
+                continue;
+            }
+            int fila = primera[l] / 6;
+            int col = primera[l] % 6;
+            ids[v] = (char) ('A' + l);
+            longitud[v] = cuenta[l];
+            horizontal[v] = col < 5 && casillas[fila][col + 1] == ids[v];
+            carril[v] = horizontal[v] ? fila : col;
+            v++;
+        }
+
+        return new Disposicion(ids, horizontal, longitud, carril);
+    }
+
+    /**
+     * QUE: Codifica la posición de cada vehículo de una matriz de casillas.
+     * POR QUE: Punto de entrada desde la representación clásica a la compacta.
+     */
+    public long codificar(char[][] casillas) {
+        long estado = 0;
+        for (int v = 0; v < ids.length; v++) {
+            int pos = -1;
+            for (int k = 0; k < 6 && pos < 0; k++) {
+                char c = horizontal[v] ? casillas[carril[v]][k] : casillas[k][carril[v]];
+                if (c == ids[v]) {
+                    pos = k;
+                }
+            }
+            estado = conPosicion(estado, v, pos);
+        }
+        return estado;
+    }
+
+    /**
+     * QUE: Obtiene la posición (columna o fila inicial) de un vehículo.
+     * POR QUE: Es la única información variable de cada vehículo.
+     */
+    public static int posicion(long estado, int v) {
+        return (int) ((estado >>> (v * BITS_POSICION)) & MASCARA_POSICION);
+    }
+
+    /**
+     * QUE: Devuelve un nuevo estado con la posición de un vehículo cambiada.
+     * POR QUE: Aplicar un movimiento se reduce a reescribir 3 bits.
+     */
+    public static long conPosicion(long estado, int v, int pos) {
+        int desplazamiento = v * BITS_POSICION;
+        return (estado & ~(MASCARA_POSICION << desplazamiento)) | ((long) pos << desplazamiento);
+    }
+
+    private static long[] crearClavesZobrist() {
+        SplittableRandom aleatorio = new SplittableRandom(0x5255534848L);
+        long[] claves = new long[MAX_VEHICULOS << BITS_POSICION];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = aleatorio.nextLong();
+        }
+        return claves;
+    }
+
+    /**
+     * QUE: Hash Zobrist de un estado: XOR de la clave (vehículo, posición) de
+     * cada hueco de vehículo.
+     * POR QUE: Solo depende del long, así que no necesita la disposición;
+     * los huecos sin vehículo aportan la misma constante a todos los estados
+     * de un nivel. Se calcula entero una vez (raíz, redimensionados) y
+     * después se actualiza con hashMovimiento.
+     */
+    public static long hashZobrist(long estado) {
+        long hash = 0;
+        for (int v = 0; v < MAX_VEHICULOS; v++) {
+            hash ^= ZOBRIST[(v << BITS_POSICION) | posicion(estado, v)];
+        }
+        return hash;
+    }
+
+    /**
+     * QUE: Hash Zobrist tras mover el vehículo v de 'desde' a 'hasta'.
+     * POR QUE: Dos XOR, sea cual sea el tamaño del tablero: sale la clave de
+     * la posición vieja y entra la de la nueva.
+     */
+    public static long hashMovimiento(long hash, int v, int desde, int hasta) {
+        return hash ^ ZOBRIST[(v << BITS_POSICION) | desde] ^ ZOBRIST[(v << BITS_POSICION) | hasta];
+    }
+
+    /**
+     * QUE: Calcula el índice lineal (fila*6+col) de la k-ésima casilla de un
+     * vehículo situado en la posición indicada.
+     * POR QUE: Centraliza la traducción carril/posición a casilla del tablero.
+     */
+    public int casilla(int v, int pos, int k) {
+        return horizontal[v] ? carril[v] * 6 + pos + k : (pos + k) * 6 + carril[v];
+    }
+
+    /**
+     * QUE: Calcula el bitboard de ocupación (bit fila*6+col) de un estado.
+     * POR QUE: Permite comprobar casillas libres con operaciones de bits en
+     * lugar de recorrer la matriz.
+     */
+    public long ocupacion(long estado) {
+        long ocupacion = 0;
+        for (int v = 0; v < ids.length; v++) {
+            ocupacion |= mascara[v][posicion(estado, v)];
+        }
+        return ocupacion;
+    }
+
+    /**
+     * QUE: Calcula el bitboard de ocupación traspuesto (bit col*6+fila).
+     * POR QUE: Con él las columnas quedan contiguas igual que las filas, así
+     * que los carriles verticales se extraen con un solo desplazamiento.
+     */
+    public long ocupacionTraspuesta(long estado) {
+        long ocupacion = 0;
+        for (int v = 0; v < ids.length; v++) {
+            ocupacion |= mascaraTraspuesta[v][posicion(estado, v)];
+        }
+        return ocupacion;
+    }
+
+    /**
+     * QUE: Casillas (bit fila*6+col) que ocupa un vehículo en una posición.
+     * POR QUE: Permite actualizar la ocupación de forma incremental.
+     */
+    public long mascara(int v, int pos) {
+        return mascara[v][pos];
+    }
+
+    /**
+     * QUE: Casillas (bit col*6+fila) que ocupa un vehículo en una posición del
+     * tablero traspuesto.
+     * POR QUE: Igual que mascara, para la ocupación traspuesta.
+     */
+    public long mascaraTraspuesta(int v, int pos) {
+        return mascaraTraspuesta[v][pos];
+    }
+
+    /**
+     * QUE: Devuelve el índice del vehículo que ocupa una casilla (fila*6+col)
+     * o -1 si está vacía.
+     * POR QUE: Consulta puntual para las heurísticas sin reconstruir la matriz.
+     */
+    public int vehiculoEn(long estado, int casilla) {
+        long bit = 1L << casilla;
+        for (int v = 0; v < ids.length; v++) {
+            if ((mascara[v][posicion(estado, v)] & bit) != 0) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * QUE: Extrae los 6 bits de ocupación del carril de un vehículo.
+     * POR QUE: El bit k indica si la casilla k del carril (columna en
+     * horizontales, fila en verticales) está ocupada.
+     */
+    public int bitsCarril(int v, long ocupacion, long ocupacionTraspuesta) {
+        long tablero = horizontal[v] ? ocupacion : ocupacionTraspuesta;
+        return (int) (tablero >>> (carril[v] * 6)) & MASCARA_CARRIL;
+    }
+
+    /**
+     * QUE: Cuenta las casillas libres consecutivas tras el final del vehículo
+     * (hacia la derecha o hacia abajo).
+     * POR QUE: Da de una vez todas las distancias legales en ese sentido.
+     */
+    public static int libresHaciaMayores(int bitsCarril, int pos, int longitud) {
+        return Integer.numberOfTrailingZeros((bitsCarril | BORDE_CARRIL) >>> (pos + longitud));
+    }
+
+    /**
+     * QUE: Cuenta las casillas libres consecutivas antes del inicio del
+     * vehículo (hacia la izquierda o hacia arriba).
+     * POR QUE: Al desplazar el carril hasta el bit 31 los huecos quedan como
+     * ceros a la izquierda.
+     */
+    public static int libresHaciaMenores(int bitsCarril, int pos) {
+        if (pos == 0) {
+            return 0;
+        }
+        return Math.min(pos, Integer.numberOfLeadingZeros(bitsCarril << (32 - pos)));
+    }
+
+    /**
+     * QUE: Distancias máximas de un vehículo en ambos sentidos, empaquetadas
+     * como (maxPositiva << 4) | maxNegativa.
+     * POR QUE: Sustituye a libresHaciaMayores/libresHaciaMenores y a la
+     * elección por orientación en los bucles de generación. Los bits que el
+     * propio vehículo ocupa en su carril no cambian la respuesta.
+     */
+    public int deslizamiento(int v, int pos, int bitsCarril) {
+        return deslizamientos[v][(pos << 6) | bitsCarril];
+    }
+
+    /** QUE: Distancia máxima en sentido '+' de un valor de deslizamiento. */
+    public static int maxPositiva(int deslizamiento) {
+        return deslizamiento >>> 4;
+    }
+
+    /** QUE: Distancia máxima en sentido '-' de un valor de deslizamiento. */
+    public static int maxNegativa(int deslizamiento) {
+        return deslizamiento & 0xF;
+    }
+
+    /**
+     * QUE: Genera todos los sucesores de un estado y se los entrega al
+     * visitante.
+     * POR QUE: Es el generador sin asignaciones que usan los bucles de
+     * búsqueda; getSuccessors() se apoya en él para mantener un único orden.
+     */
+    public void generarSucesores(long estado, VisitanteSucesores visitante) {
+        long ocupacion = ocupacion(estado);
+        long ocupacionT = ocupacionTraspuesta(estado);
+
+        for (int v = 0; v < ids.length; v++) {
+            int bits = bitsCarril(v, ocupacion, ocupacionT);
+            int pos = posicion(estado, v);
+            int deslizamiento = deslizamientos[v][(pos << 6) | bits];
+
+            // '+' avanza hacia índices mayores en horizontales (derecha) y
+            // hacia índices menores en verticales (arriba).
+            int signo = horizontal[v] ? 1 : -1;
+            int maxPositiva = maxPositiva(deslizamiento);
+            int maxNegativa = maxNegativa(deslizamiento);
+
+            for (int dist = 1; dist <= maxPositiva; dist++) {
+                visitante.visitar(Accion.codificar(v, true, dist), 6 - dist,
+                        conPosicion(estado, v, pos + signo * dist));
+            }
+            for (int dist = 1; dist <= maxNegativa; dist++) {
+                visitante.visitar(Accion.codificar(v, false, dist), 6 - dist,
+                        conPosicion(estado, v, pos - signo * dist));
+            }
+        }
+    }
+
+    /**
+     * QUE: Reconstruye la matriz de casillas de un estado codificado.
+     * POR QUE: Necesario para las consultas que trabajan casilla a casilla.
+     */
+    public char[][] aCasillas(long estado) {
+        char[] lineal = aLineal(estado);
+        char[][] casillas = new char[6][6];
+        for (int i = 0; i < 6; i++) {
+            System.arraycopy(lineal, i * 6, casillas[i], 0, 6);
+        }
+        return casillas;
+    }
+
+    /**
+     * QUE: Convierte un estado codificado en el string de 36 caracteres.
+     * POR QUE: Es el formato de salida de todos los comandos.
+     */
+    public String decodificar(long estado) {
+        return new String(aLineal(estado));
+    }
+
+    /**
+     * QUE: Escribe las 36 casillas de un estado como bytes ASCII a partir de
+     * 'desde'.
+     * POR QUE: SalidaBuffer escribe trazas de millones de líneas sin crear
+     * un String por estado; el resultado son los mismos caracteres que
+     * decodificar.
+     */
+    public void escribirCasillas(long estado, byte[] destino, int desde) {
+        Arrays.fill(destino, desde, desde + 36, (byte) 'o');
+        for (int v = 0; v < ids.length; v++) {
+            int pos = posicion(estado, v);
+            for (int k = 0; k < longitud[v]; k++) {
+                destino[desde + casilla(v, pos, k)] = (byte) ids[v];
+            }
+        }
+    }
+
+    /**
+     * QUE: Vuelca un estado codificado en un vector de 36 caracteres.
+     * POR QUE: Base común de decodificar y aCasillas.
+     */
+    private char[] aLineal(long estado) {
+        char[] lineal = new char[36];
+        Arrays.fill(lineal, 'o');
+        for (int v = 0; v < ids.length; v++) {
+            int pos = posicion(estado, v);
+            for (int k = 0; k < longitud[v]; k++) {
+                lineal[casilla(v, pos, k)] = ids[v];
+            }
+        }
+        return lineal;
+    }
+
+    /**
+     * QUE: Comprueba si otra disposición tiene los mismos vehículos con la
+     * misma orientación, longitud y carril.
+     * POR QUE: Solo entonces los estados de ambas se codifican igual y se
+     * pueden comparar (por ejemplo, un estado objetivo dado aparte).
+     */
+    public boolean esCompatible(Disposicion otra) {
+        return Arrays.equals(ids, otra.ids) && Arrays.equals(horizontal, otra.horizontal)
+                && Arrays.equals(longitud, otra.longitud) && Arrays.equals(carril, otra.carril);
+    }
+
+    /**
+     * QUE: Texto que identifica la disposición: por vehículo, su letra,
+     * orientación (H/V), carril y longitud (ej. "AH22 BV03").
+     * POR QUE: Dos disposiciones con la misma firma son compatibles; se guarda
+     * en los ficheros de datos por estado para rechazar los de otro nivel.
+     */
+    public String firma() {
+        StringBuilder firma = new StringBuilder(ids.length * 5);
+        for (int v = 0; v < ids.length; v++) {
+            if (v > 0) {
+                firma.append(' ');
+            }
+            firma.append(ids[v]).append(horizontal[v] ? 'H' : 'V').append(carril[v]).append(longitud[v]);
+        }
+        return firma.toString();
+    }
+
+    /**
+     * QUE: Comprueba si el coche rojo ocupa la casilla de salida (2,5).
+     * POR QUE: Test objetivo sin reconstruir el tablero.
+     */
+    public boolean esMeta(long estado) {
+        int a = indice('A');
+        return a >= 0 && posicion(estado, a) + longitud[a] == 6;
+    }
+
+    /**
+     * QUE: Devuelve el índice interno de un vehículo a partir de su letra.
+     * POR QUE: Los vehículos se guardan ordenados por ID; -1 si no existe.
+     */
+    public int indice(char id) {
+        if (id < 'A' || id > 'Z') {
+            return -1;
+        }
+        return indicePorLetra[id - 'A'];
+    }
+
+    public int numVehiculos() {
+        return ids.length;
+    }
+
+    public char getID(int v) {
+        return ids[v];
+    }
+
+    public boolean isHorizontal(int v) {
+        return horizontal[v];
+    }
+
+    public int getLongitud(int v) {
+        return longitud[v];
+    }
+
+    /**
+     * QUE: Obtiene la fila (horizontales) o columna (verticales) fija.
+     * POR QUE: Un vehículo nunca abandona su carril.
+     */
+    public int getCarril(int v) {
+        return carril[v];
+    }
+}
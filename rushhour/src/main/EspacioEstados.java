@@ -0,0 +1,150 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * QUE: Componente conexa completa de un nivel: todos los estados alcanzables
+ * desde el inicial y la distancia (en movimientos) de cada uno a la meta más
+ * cercana.
+ * POR QUE: Todos los niveles con la misma disposición de vehículos
+ * alcanzables entre sí comparten este espacio; calcularlo una vez permite
+ * responder después cualquier nivel de la componente sin buscar.
+ *
+ * Se calcula con dos anchuras sobre estados codificados: una desde el estado
+ * inicial que numera los estados y otra retrógrada desde todas las metas.
+ * Como todo movimiento es reversible, los predecesores de un estado son sus
+ * sucesores.
+ */
+public class EspacioEstados implements VisitanteSucesores {
+
+    /** Distancia de los estados desde los que no se alcanza ninguna meta. */
+    public static final int SIN_DISTANCIA = 0xFF;
+
+    private final Disposicion disposicion;
+    private long[] estados;
+    private int numEstados;
+    private final ConjuntoCerrado indices;
+    private byte[] distancias;
+    private int numMetas;
+    private int distanciaMaxima;
+
+    // Fase y datos de la expansión en curso, leídos por visitar.
+    private boolean retrograda;
+    private int[] cola;
+    private int finCola;
+    private int distanciaSiguiente;
+
+    private EspacioEstados(Disposicion disposicion) {
+        this.disposicion = disposicion;
+        this.estados = new long[1 << 12];
+        this.indices = new ConjuntoCerrado(1 << 12, true);
+    }
+
+    /**
+     * QUE: Enumera la componente de un estado y calcula sus distancias.
+     * POR QUE: Los estados quedan numerados en orden de anchura desde el
+     * inicial; la distancia de cada uno va en un byte (SIN_DISTANCIA si no
+     * hay meta alcanzable).
+     */
+    public static EspacioEstados explorar(Disposicion disposicion, long inicial) {
+        EspacioEstados espacio = new EspacioEstados(disposicion);
+        espacio.enumerar(inicial);
+        espacio.calcularDistancias();
+        return espacio;
+    }
+
+    /**
+     * QUE: Anchura desde el estado inicial que registra cada estado nuevo.
+     * POR QUE: El propio array de estados hace de cola.
+     */
+    private void enumerar(long inicial) {
+        retrograda = false;
+        anadir(inicial);
+        for (int i = 0; i < numEstados; i++) {
+            disposicion.generarSucesores(estados[i], this);
+        }
+    }
+
+    private void anadir(long estado) {
+        if (numEstados == estados.length) {
+            estados = Arrays.copyOf(estados, numEstados * 2);
+        }
+        indices.mejorar(estado, numEstados);
+        estados[numEstados++] = estado;
+    }
+
+    /**
+     * QUE: Anchura retrógrada desde todas las metas de la componente.
+     * POR QUE: La primera vez que se alcanza un estado es con su distancia
+     * mínima a alguna meta.
+     */
+    private void calcularDistancias() {
+        retrograda = true;
+        distancias = new byte[numEstados];
+        Arrays.fill(distancias, (byte) SIN_DISTANCIA);
+        cola = new int[numEstados];
+        finCola = 0;
+        for (int i = 0; i < numEstados; i++) {
+            if (disposicion.esMeta(estados[i])) {
+                distancias[i] = 0;
+                cola[finCola++] = i;
+            }
+        }
+        numMetas = finCola;
+
+        for (int k = 0; k < finCola; k++) {
+            int i = cola[k];
+            distanciaSiguiente = (distancias[i] & 0xFF) + 1;
+            if (distanciaSiguiente >= SIN_DISTANCIA) {
+                throw new IllegalStateException("Distancia a la meta mayor que " + (SIN_DISTANCIA - 1));
+            }
+            disposicion.generarSucesores(estados[i], this);
+        }
+        distanciaMaxima = (finCola == 0) ? 0 : distancias[cola[finCola - 1]] & 0xFF;
+        cola = null;
+    }
+
+    /**
+     * QUE: Registra un sucesor según la fase: numerarlo si es nuevo o darle
+     * distancia si aún no la tiene.
+     * POR QUE: Un único visitante evita crear objetos por estado.
+     */
+    @Override
+    public void visitar(int accion, int costo, long nuevoEstado) {
+        if (!retrograda) {
+            if (!indices.contiene(nuevoEstado)) {
+                anadir(nuevoEstado);
+            }
+            return;
+        }
+        int j = indices.obtener(nuevoEstado);
+        if ((distancias[j] & 0xFF) == SIN_DISTANCIA) {
+            distancias[j] = (byte) distanciaSiguiente;
+            cola[finCola++] = j;
+        }
+    }
+
+    public Disposicion getDisposicion() {
+        return disposicion;
+    }
+
+    public int getNumEstados() {
+        return numEstados;
+    }
+
+    public long getEstado(int i) {
+        return estados[i];
+    }
+
+    public int getDistancia(int i) {
+        return distancias[i] & 0xFF;
+    }
+
+    public int getNumMetas() {
+        return numMetas;
+    }
+
+    public int getDistanciaMaxima() {
+        return distanciaMaxima;
+    }
+}
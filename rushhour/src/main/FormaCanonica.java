@@ -0,0 +1,87 @@
+package main;
+
+/**
+ * QUE: Nivel con los vehículos renombrados en orden de aparición y las
+ * tablas para traducir letras entre el nivel real y el canónico.
+ * POR QUE: Las letras no cambian el problema: dos niveles que solo difieren
+ * en cómo se llaman sus vehículos (por ejemplo dos camiones intercambiables
+ * con las letras cambiadas) tienen las mismas soluciones. Resolviendo la
+ * forma canónica comparten entrada en la caché de soluciones y en los lotes,
+ * y el camino se traduce a las letras reales al imprimirlo.
+ *
+ * El coche rojo sigue siendo A; el resto recibe B, C, ... según su primera
+ * casilla recorriendo el tablero por filas. Dentro de un mismo nivel no hay
+ * nada que canonicalizar: dos vehículos intercambiables comparten carril y
+ * no pueden adelantarse, así que ningún estado alcanzable es otro con sus
+ * letras permutadas.
+ */
+public class FormaCanonica {
+
+    private final String nivelCanonico;
+    private final char[] aCanonica = new char[26];
+    private final char[] aReal = new char[26];
+
+    /**
+     * QUE: Calcula la forma canónica de un nivel.
+     * POR QUE: Como mucho hay 25 vehículos además de A, así que siempre
+     * caben en B..Z.
+     */
+    public FormaCanonica(String nivel) {
+        char[] casillas = nivel.toCharArray();
+        char siguiente = 'B';
+        for (int i = 0; i < casillas.length; i++) {
+            char c = casillas[i];
+            if (c < 'A' || c > 'Z') {
+                continue;
+            }
+            if (aCanonica[c - 'A'] == 0) {
+                char canonica = (c == 'A') ? 'A' : siguiente++;
+                aCanonica[c - 'A'] = canonica;
+                aReal[canonica - 'A'] = c;
+            }
+            casillas[i] = aCanonica[c - 'A'];
+        }
+        this.nivelCanonico = new String(casillas);
+    }
+
+    public String getNivelCanonico() {
+        return nivelCanonico;
+    }
+
+    /**
+     * QUE: Traduce las letras de un texto del nivel real al canónico.
+     * POR QUE: Para la meta de --goal. Las letras que no están en el nivel
+     * se dejan igual.
+     */
+    public String aCanonica(String texto) {
+        return traducir(texto, aCanonica);
+    }
+
+    /**
+     * QUE: Traduce las letras de un texto del nivel canónico al real.
+     * POR QUE: Las líneas del camino (acción y estado) se imprimen con las
+     * letras del nivel que pidió el usuario.
+     */
+    public String aReal(String texto) {
+        return traducir(texto, aReal);
+    }
+
+    /**
+     * QUE: Letra real de una letra canónica.
+     * POR QUE: SalidaBuffer traduce carácter a carácter sin crear Strings.
+     */
+    public char aReal(char letra) {
+        return (letra >= 'A' && letra <= 'Z' && aReal[letra - 'A'] != 0) ? aReal[letra - 'A'] : letra;
+    }
+
+    private static String traducir(String texto, char[] tabla) {
+        char[] letras = texto.toCharArray();
+        for (int i = 0; i < letras.length; i++) {
+            char c = letras[i];
+            if (c >= 'A' && c <= 'Z' && tabla[c - 'A'] != 0) {
+                letras[i] = tabla[c - 'A'];
+            }
+        }
+        return new String(letras);
+    }
+}
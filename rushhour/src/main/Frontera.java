@@ -1,50 +1,46 @@
 package main;
 
-import java.util.PriorityQueue;
-
 /**
  * QUE: Representa la frontera de nodos por explorar en el árbol de búsqueda.
- * POR QUE: Gestionar el orden de exploración de los nodos según la estrategia,
- * manteniendo automáticamente el orden correcto basado en el valor y ID.
+ * POR QUE: Gestionar el orden de exploración de los nodos según la estrategia:
+ * siempre se extrae el nodo de menor valor y, a igualdad, el de menor ID.
+ * Los nodos son índices de PoolNodos (su ID), así que la frontera solo guarda
+ * enteros.
  */
-public class Frontera {
+public interface Frontera {
 
-    private PriorityQueue<Nodo> estructura;
+    /** Valor devuelto por extraer cuando la frontera está vacía. */
+    int VACIA = -1;
 
     /**
-     * QUE: Constructor que inicializa la estructura de la frontera.
-     * POR QUE: Crear una cola de prioridad que ordene los nodos automáticamente
-     * según su método compareTo (valor, luego ID).
+     * QUE: Agrega un nodo a la frontera con su valor de prioridad.
+     * POR QUE: Añadir nuevos nodos candidatos para explorar.
      */
-    public Frontera() {
-        this.estructura = new PriorityQueue<>();
-    }
+    void agregar(int nodo, int valor);
 
     /**
-     * QUE: Agrega un nodo a la frontera.
-     * POR QUE: Añadir nuevos nodos candidatos para explorar, manteniendo
-     * automáticamente el orden según la prioridad (valor + ID).
+     * QUE: Extrae el nodo con mayor prioridad (menor valor, luego menor ID).
+     * POR QUE: Obtener el siguiente nodo a expandir. Devuelve VACIA si no
+     * quedan nodos.
      */
-    public void agregar(Nodo nodo) {
-        estructura.add(nodo);
-    }
-
-    /**
-     * QUE: Extrae el nodo con mayor prioridad (menor valor) de la frontera.
-     * POR QUE: Obtener el siguiente nodo a expandir según la estrategia de
-     * búsqueda.
-     * La PriorityQueue garantiza que siempre se extrae el de menor valor.
-     */
-    public Nodo extraer() {
-        return estructura.poll(); // poll() devuelve null si está vacía
-    }
+    int extraer();
 
     /**
      * QUE: Comprueba si la frontera está vacía.
      * POR QUE: Determinar si quedan nodos por explorar o si la búsqueda debe
      * terminar.
      */
-    public boolean vacia() {
-        return estructura.isEmpty();
-    }
-}
\ No newline at end of file
+    boolean vacia();
+
+    /**
+     * QUE: Número de nodos en la frontera.
+     * POR QUE: Estadísticas de la búsqueda.
+     */
+    int tamano();
+
+    /**
+     * QUE: Vacía la frontera conservando la memoria reservada.
+     * POR QUE: Reutilizarla entre búsquedas.
+     */
+    void limpiar();
+}
@@ -0,0 +1,133 @@
+package main;
+
+/**
+ * QUE: Frontera implementada como cola de cubetas indexada por el valor del
+ * nodo, con orden FIFO dentro de cada cubeta.
+ * POR QUE: Todos los valores de prioridad son enteros pequeños no negativos
+ * (profundidad, suma de costes 6 - dist, g+h o h), así que agregar y extraer
+ * cuestan O(1) amortizado en lugar de O(log n) comparaciones de objetos.
+ *
+ * El desempate por ID se conserva porque la búsqueda inserta cada nodo nada
+ * más crearlo en PoolNodos: dentro de una cubeta el orden de llegada es el
+ * orden de ID.
+ */
+public class FronteraCubetas implements Frontera {
+
+    /**
+     * QUE: Cola FIFO de los nodos con un mismo valor.
+     * POR QUE: Un int[] con índices de inicio y fin no crea objetos por nodo
+     * y se recorre de forma secuencial.
+     */
+    private static final class Cubeta {
+        private int[] datos = new int[16];
+        private int inicio;
+        private int fin;
+
+        boolean vacia() {
+            return inicio == fin;
+        }
+
+        void agregar(int nodo) {
+            if (fin == datos.length) {
+                int ocupados = fin - inicio;
+                int[] destino = (ocupados * 2 > datos.length) ? new int[datos.length * 2] : datos;
+                System.arraycopy(datos, inicio, destino, 0, ocupados);
+                datos = destino;
+                inicio = 0;
+                fin = ocupados;
+            }
+            datos[fin++] = nodo;
+        }
+
+        int extraer() {
+            int nodo = datos[inicio++];
+            if (inicio == fin) {
+                inicio = 0;
+                fin = 0;
+            }
+            return nodo;
+        }
+    }
+
+    private Cubeta[] cubetas;
+    private int minimo;
+    private int tamano;
+
+    /**
+     * QUE: Constructor que inicializa una frontera vacía.
+     * POR QUE: Las cubetas se crean bajo demanda según los valores que lleguen.
+     */
+    public FronteraCubetas() {
+        this.cubetas = new Cubeta[64];
+        this.minimo = 0;
+        this.tamano = 0;
+    }
+
+    /**
+     * QUE: Agrega un nodo al final de la cubeta de su valor.
+     * POR QUE: Si el valor es menor que el mínimo actual (GREEDY, DFS) el
+     * mínimo retrocede para que extraer lo encuentre.
+     */
+    @Override
+    public void agregar(int nodo, int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor de prioridad negativo: " + valor);
+        }
+        if (valor >= cubetas.length) {
+            Cubeta[] nuevas = new Cubeta[Math.max(valor + 1, cubetas.length * 2)];
+            System.arraycopy(cubetas, 0, nuevas, 0, cubetas.length);
+            cubetas = nuevas;
+        }
+        if (cubetas[valor] == null) {
+            cubetas[valor] = new Cubeta();
+        }
+        cubetas[valor].agregar(nodo);
+        if (valor < minimo) {
+            minimo = valor;
+        }
+        tamano++;
+    }
+
+    /**
+     * QUE: Extrae el primer nodo de la cubeta no vacía de menor valor.
+     * POR QUE: El puntero al mínimo solo avanza sobre cubetas vacías, así que
+     * el recorrido total está acotado por el valor máximo alcanzado.
+     */
+    @Override
+    public int extraer() {
+        if (tamano == 0) {
+            return VACIA;
+        }
+        while (cubetas[minimo] == null || cubetas[minimo].vacia()) {
+            minimo++;
+        }
+        tamano--;
+        return cubetas[minimo].extraer();
+    }
+
+    @Override
+    public boolean vacia() {
+        return tamano == 0;
+    }
+
+    @Override
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * QUE: Vacía todas las cubetas conservando sus arrays.
+     * POR QUE: Reutilizar la frontera entre búsquedas.
+     */
+    @Override
+    public void limpiar() {
+        for (Cubeta cubeta : cubetas) {
+            if (cubeta != null) {
+                cubeta.inicio = 0;
+                cubeta.fin = 0;
+            }
+        }
+        minimo = 0;
+        tamano = 0;
+    }
+}
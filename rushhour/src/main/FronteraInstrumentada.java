@@ -0,0 +1,51 @@
+package main;
+
+/**
+ * QUE: Frontera que envuelve a otra midiendo el tiempo de cada operación y
+ * su tamaño.
+ * POR QUE: Busqueda solo la usa con Instrumentacion.ACTIVA; así las
+ * fronteras normales no llevan ningún código de medida.
+ */
+public class FronteraInstrumentada implements Frontera {
+
+    private final Frontera frontera;
+
+    public FronteraInstrumentada(Frontera frontera) {
+        this.frontera = frontera;
+    }
+
+    @Override
+    public void agregar(int nodo, int valor) {
+        long t = System.nanoTime();
+        frontera.agregar(nodo, valor);
+        Instrumentacion.sumar(Instrumentacion.FASE_FRONTERA, t);
+        Instrumentacion.cambioFrontera(1, frontera.tamano());
+    }
+
+    @Override
+    public int extraer() {
+        long t = System.nanoTime();
+        int nodo = frontera.extraer();
+        Instrumentacion.sumar(Instrumentacion.FASE_FRONTERA, t);
+        if (nodo != VACIA) {
+            Instrumentacion.cambioFrontera(-1, 0);
+        }
+        return nodo;
+    }
+
+    @Override
+    public boolean vacia() {
+        return frontera.vacia();
+    }
+
+    @Override
+    public int tamano() {
+        return frontera.tamano();
+    }
+
+    @Override
+    public void limpiar() {
+        Instrumentacion.cambioFrontera(-frontera.tamano(), 0);
+        frontera.limpiar();
+    }
+}
@@ -0,0 +1,101 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * QUE: Frontera respaldada por un montículo binario de claves long.
+ * POR QUE: Gestionar el orden de exploración de los nodos según la estrategia,
+ * manteniendo automáticamente el orden correcto basado en el valor y ID.
+ * Admite cualquier valor de prioridad a coste O(log n) por operación; cada
+ * clave es (valor << 32 | ID), así que una sola comparación de long aplica
+ * los dos criterios sin objetos.
+ */
+public class FronteraMonticulo implements Frontera {
+
+    private long[] estructura;
+    private int tamano;
+
+    /**
+     * QUE: Constructor que inicializa la estructura de la frontera.
+     * POR QUE: Crear un montículo vacío que crece bajo demanda.
+     */
+    public FronteraMonticulo() {
+        this.estructura = new long[64];
+        this.tamano = 0;
+    }
+
+    /**
+     * QUE: Agrega un nodo a la frontera.
+     * POR QUE: Añadir nuevos nodos candidatos para explorar, manteniendo
+     * automáticamente el orden según la prioridad (valor + ID).
+     */
+    @Override
+    public void agregar(int nodo, int valor) {
+        if (tamano == estructura.length) {
+            estructura = Arrays.copyOf(estructura, tamano * 2);
+        }
+        long clave = ((long) valor << 32) | nodo;
+        int i = tamano++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (estructura[p] <= clave) {
+                break;
+            }
+            estructura[i] = estructura[p];
+            i = p;
+        }
+        estructura[i] = clave;
+    }
+
+    /**
+     * QUE: Extrae el nodo con mayor prioridad (menor valor) de la frontera.
+     * POR QUE: Obtener el siguiente nodo a expandir según la estrategia de
+     * búsqueda.
+     * El montículo garantiza que siempre se extrae el de menor clave.
+     */
+    @Override
+    public int extraer() {
+        if (tamano == 0) {
+            return VACIA;
+        }
+        long cima = estructura[0];
+        long ultimo = estructura[--tamano];
+        int i = 0;
+        while (true) {
+            int h = 2 * i + 1;
+            if (h >= tamano) {
+                break;
+            }
+            if (h + 1 < tamano && estructura[h + 1] < estructura[h]) {
+                h++;
+            }
+            if (ultimo <= estructura[h]) {
+                break;
+            }
+            estructura[i] = estructura[h];
+            i = h;
+        }
+        estructura[i] = ultimo;
+        return (int) cima;
+    }
+
+    /**
+     * QUE: Comprueba si la frontera está vacía.
+     * POR QUE: Determinar si quedan nodos por explorar o si la búsqueda debe
+     * terminar.
+     */
+    @Override
+    public boolean vacia() {
+        return tamano == 0;
+    }
+
+    @Override
+    public int tamano() {
+        return tamano;
+    }
+
+    @Override
+    public void limpiar() {
+        tamano = 0;
+    }
+}
@@ -0,0 +1,72 @@
+package main;
+
+/**
+ * QUE: Frontera LIFO para DFS: extrae siempre el último grupo de hijos
+ * añadido, empezando por el primero que se generó.
+ * POR QUE: Con el valor 1000 / (profundidad + 1) en una cola de prioridad
+ * cada inserción cuesta O(log n) y, por el redondeo, a partir de unas decenas
+ * de niveles varias profundidades comparten valor (de 499 a 999 valen 1, más
+ * allá todas 0). Entonces decide el ID y el recorrido deja de ser en
+ * profundidad. Una pila da el orden en profundidad real con agregar y
+ * extraer O(1); el valor se ignora y solo se sigue mostrando en los nodos.
+ *
+ * Los hijos de una expansión llegan entre dos llamadas a extraer. Para que
+ * salga primero el primero generado (el de menor ID, como en la cola de
+ * prioridad) ese grupo se invierte en el sitio antes de extraer.
+ */
+public class FronteraPila implements Frontera {
+
+    private int[] datos;
+    private int tamano;
+    private int inicioGrupo;
+
+    /**
+     * QUE: Constructor que inicializa una pila vacía.
+     */
+    public FronteraPila() {
+        this.datos = new int[64];
+        this.tamano = 0;
+        this.inicioGrupo = 0;
+    }
+
+    @Override
+    public void agregar(int nodo, int valor) {
+        if (tamano == datos.length) {
+            int[] nuevos = new int[datos.length * 2];
+            System.arraycopy(datos, 0, nuevos, 0, tamano);
+            datos = nuevos;
+        }
+        datos[tamano++] = nodo;
+    }
+
+    @Override
+    public int extraer() {
+        if (tamano == 0) {
+            return VACIA;
+        }
+        for (int i = inicioGrupo, j = tamano - 1; i < j; i++, j--) {
+            int nodo = datos[i];
+            datos[i] = datos[j];
+            datos[j] = nodo;
+        }
+        int nodo = datos[--tamano];
+        inicioGrupo = tamano;
+        return nodo;
+    }
+
+    @Override
+    public boolean vacia() {
+        return tamano == 0;
+    }
+
+    @Override
+    public int tamano() {
+        return tamano;
+    }
+
+    @Override
+    public void limpiar() {
+        tamano = 0;
+        inicioGrupo = 0;
+    }
+}
@@ -0,0 +1,34 @@
+package main;
+
+/**
+ * QUE: Estima el coste que falta desde un estado hasta la meta.
+ * POR QUE: Las estrategias informadas (A* y GREEDY) ordenan la frontera con
+ * este valor; cada implementación es intercambiable desde la línea de
+ * comandos.
+ */
+public interface Heuristica {
+
+    /**
+     * QUE: Calcula la estimación para un estado codificado.
+     * POR QUE: Trabaja sobre el long para no reconstruir el tablero.
+     */
+    int evaluar(Disposicion disposicion, long estado);
+
+    /**
+     * QUE: Devuelve la heurística asociada a un nombre de la línea de comandos.
+     * POR QUE: Punto único para seleccionar heurísticas con --heuristic.
+     * Devuelve null si el nombre no existe.
+     */
+    static Heuristica porNombre(String nombre) {
+        switch (nombre) {
+            case "0":
+                return new HeuristicaCero();
+            case "blocking":
+                return new HeuristicaBloqueadores();
+            case "recursive":
+                return new HeuristicaBloqueadoresRecursiva();
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package main;
+
+/**
+ * QUE: Cuenta los vehículos que bloquean al coche rojo en la fila 2, más el
+ * propio movimiento del coche rojo.
+ * POR QUE: Cada uno de ellos debe moverse al menos una vez y cualquier
+ * movimiento cuesta como mínimo 1, así que es admisible para UCS y A*.
+ */
+public class HeuristicaBloqueadores implements Heuristica {
+
+    @Override
+    public int evaluar(Disposicion disposicion, long estado) {
+        if (disposicion.esMeta(estado)) {
+            return 0;
+        }
+        int a = disposicion.indice('A');
+        int fin = Disposicion.posicion(estado, a) + disposicion.getLongitud(a);
+        int fila = disposicion.getCarril(a);
+
+        int bloqueadores = 0;
+        for (int col = fin; col < 6; col++) {
+            int v = disposicion.vehiculoEn(estado, fila * 6 + col);
+            if (v >= 0) {
+                bloqueadores |= 1 << v;
+            }
+        }
+        return 1 + Integer.bitCount(bloqueadores);
+    }
+}
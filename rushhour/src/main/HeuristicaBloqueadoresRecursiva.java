@@ -0,0 +1,109 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * QUE: Cota inferior recursiva "bloqueadores de bloqueadores": calcula el
+ * conjunto de vehículos que obligatoriamente tienen que moverse.
+ * POR QUE: Es más informada que contar bloqueadores directos y sigue siendo
+ * admisible, porque cada vehículo del conjunto necesita al menos un
+ * movimiento de coste >= 1.
+ *
+ * Razonamiento: si un vehículo debe liberar una casilla y solo puede hacerlo
+ * en un sentido (el otro se sale del tablero), todas las casillas que barre
+ * hasta liberarla tienen que quedar vacías en algún momento, así que sus
+ * ocupantes actuales también deben moverse y liberar esa casilla. Cuando hay
+ * dos sentidos posibles no se fuerza nada, para no perder la admisibilidad.
+ */
+public class HeuristicaBloqueadoresRecursiva implements Heuristica {
+
+    /** Memoria de trabajo por hilo: la misma instancia se comparte entre hilos. */
+    private static final ThreadLocal<Memoria> MEMORIA = ThreadLocal.withInitial(Memoria::new);
+
+    @Override
+    public int evaluar(Disposicion disposicion, long estado) {
+        if (disposicion.esMeta(estado)) {
+            return 0;
+        }
+        int a = disposicion.indice('A');
+        int fila = disposicion.getCarril(a);
+        int fin = Disposicion.posicion(estado, a) + disposicion.getLongitud(a);
+
+        // Pares (vehículo, casilla) pendientes de liberar y ya procesados.
+        Memoria memoria = MEMORIA.get();
+        memoria.preparar(disposicion.numVehiculos());
+        int[] pilaVehiculo = memoria.pilaVehiculo;
+        int[] pilaCasilla = memoria.pilaCasilla;
+        long[] procesadas = memoria.procesadas;
+        int cima = 0;
+
+        int forzados = 1 << a;
+        for (int col = fin; col < 6; col++) {
+            int casilla = fila * 6 + col;
+            int v = disposicion.vehiculoEn(estado, casilla);
+            if (v >= 0) {
+                pilaVehiculo[cima] = v;
+                pilaCasilla[cima++] = casilla;
+            }
+        }
+
+        while (cima > 0) {
+            int v = pilaVehiculo[--cima];
+            int casilla = pilaCasilla[cima];
+            if ((procesadas[v] & (1L << casilla)) != 0) {
+                continue;
+            }
+            procesadas[v] |= 1L << casilla;
+            forzados |= 1 << v;
+
+            int pos = Disposicion.posicion(estado, v);
+            int longitud = disposicion.getLongitud(v);
+            int indice = disposicion.isHorizontal(v) ? casilla % 6 : casilla / 6;
+            boolean haciaMayores = indice + longitud <= 5;
+            boolean haciaMenores = indice - longitud >= 0;
+            if (haciaMayores == haciaMenores) {
+                continue;
+            }
+
+            // Casillas del carril que barre hasta dejar libre 'indice'.
+            int desde = haciaMayores ? pos + longitud : indice - longitud;
+            int hasta = haciaMayores ? indice + longitud : pos - 1;
+            for (int k = desde; k <= hasta; k++) {
+                int barrida = disposicion.casilla(v, k, 0);
+                int w = disposicion.vehiculoEn(estado, barrida);
+                if (w >= 0 && w != v) {
+                    pilaVehiculo[cima] = w;
+                    pilaCasilla[cima++] = barrida;
+                }
+            }
+        }
+        return Integer.bitCount(forzados);
+    }
+
+    /**
+     * QUE: Pila y casillas procesadas que evaluar reutiliza entre llamadas.
+     * POR QUE: evaluar se llama una vez por nodo generado; reservar los
+     * arrays en cada llamada dominaba su coste y cargaba al recolector. Cada
+     * vehículo solo procesa las 6 casillas de su carril y cada una apila a lo
+     * sumo 6 pares, así que la pila cabe en numVehiculos * 36.
+     */
+    private static final class Memoria {
+
+        private int[] pilaVehiculo = new int[0];
+        private int[] pilaCasilla = new int[0];
+        private long[] procesadas = new long[0];
+
+        /**
+         * QUE: Asegura capacidad para n vehículos y vacía 'procesadas'.
+         */
+        private void preparar(int n) {
+            if (procesadas.length < n) {
+                pilaVehiculo = new int[n * 36];
+                pilaCasilla = new int[n * 36];
+                procesadas = new long[n];
+            } else {
+                Arrays.fill(procesadas, 0, n, 0L);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package main;
+
+/**
+ * QUE: Heurística nula (h = 0).
+ * POR QUE: Convierte A* en UCS y sirve de referencia para medir las demás.
+ */
+public class HeuristicaCero implements Heuristica {
+
+    @Override
+    public int evaluar(Disposicion disposicion, long estado) {
+        return 0;
+    }
+}
@@ -0,0 +1,23 @@
+package main;
+
+/**
+ * QUE: Máximo de dos heurísticas.
+ * POR QUE: El máximo de cotas admisibles sigue siendo admisible; así la base
+ * de patrones de --pdb se combina con la heurística de --heuristic y cada
+ * estado toma la más informada de las dos.
+ */
+public class HeuristicaMaxima implements Heuristica {
+
+    private final Heuristica primera;
+    private final Heuristica segunda;
+
+    public HeuristicaMaxima(Heuristica primera, Heuristica segunda) {
+        this.primera = primera;
+        this.segunda = segunda;
+    }
+
+    @Override
+    public int evaluar(Disposicion disposicion, long estado) {
+        return Math.max(primera.evaluar(disposicion, estado), segunda.evaluar(disposicion, estado));
+    }
+}
@@ -0,0 +1,173 @@
+package main;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * QUE: Contadores y tiempos por fase de las búsquedas, con líneas de
+ * progreso periódicas y un resumen final en JSON por stderr.
+ * POR QUE: En una búsqueda larga no se sabe si el tiempo se va en generar
+ * sucesores, descartar duplicados, operar la frontera o construir cadenas.
+ *
+ * Se activa con -Drushhour.instrumentacion=true (el periodo del progreso,
+ * en milisegundos, con -Drushhour.instrumentacion.periodo). ACTIVA es un
+ * static final: con la instrumentación desactivada el JIT elimina cada
+ * bloque 'if (Instrumentacion.ACTIVA)' y el bucle de búsqueda queda igual
+ * que sin ella. Los contadores son LongAdder para que varios hilos (batch)
+ * sumen sin contención.
+ */
+public final class Instrumentacion {
+
+    /** Si la instrumentación está activa en esta JVM. */
+    public static final boolean ACTIVA = Boolean.getBoolean("rushhour.instrumentacion");
+
+    /** Fases cuyo tiempo se mide por separado. */
+    public static final int FASE_SUCESORES = 0;
+    public static final int FASE_DUPLICADOS = 1;
+    public static final int FASE_FRONTERA = 2;
+    public static final int FASE_HEURISTICA = 3;
+    public static final int FASE_CAMINO = 4;
+    public static final int FASE_CADENAS = 5;
+
+    private static final String[] NOMBRES_FASES = {
+        "sucesores", "duplicados", "frontera", "heuristica", "camino", "cadenas"
+    };
+
+    /** Las profundidades mayores se acumulan en la última posición. */
+    private static final int MAX_PROFUNDIDAD = 256;
+
+    private static final long PERIODO_MS = Long.getLong("rushhour.instrumentacion.periodo", 1000);
+
+    private static final LongAdder generados = new LongAdder();
+    private static final LongAdder expandidos = new LongAdder();
+    private static final LongAdder duplicados = new LongAdder();
+    private static final LongAdder tamanoFrontera = new LongAdder();
+    private static final LongAccumulator picoFrontera = new LongAccumulator(Long::max, 0);
+    private static final LongAdder[] nanosFase = crear(NOMBRES_FASES.length);
+    private static final LongAdder[] expandidosProfundidad = crear(MAX_PROFUNDIDAD);
+    private static final LongAdder[] generadosProfundidad = crear(MAX_PROFUNDIDAD);
+
+    private static long inicio;
+    private static ScheduledExecutorService progreso;
+
+    private Instrumentacion() {
+    }
+
+    private static LongAdder[] crear(int n) {
+        LongAdder[] contadores = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            contadores[i] = new LongAdder();
+        }
+        return contadores;
+    }
+
+    /**
+     * QUE: Empieza a imprimir el progreso cada PERIODO_MS.
+     * POR QUE: El hilo es daemon, así que nunca retrasa la salida de la JVM.
+     */
+    public static synchronized void iniciar() {
+        inicio = System.nanoTime();
+        progreso = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "instrumentacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        progreso.scheduleAtFixedRate(() -> imprimirProgreso(System.err), PERIODO_MS, PERIODO_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * QUE: Detiene el progreso e imprime el resumen JSON.
+     */
+    public static synchronized void terminar(PrintStream salida) {
+        if (progreso != null) {
+            progreso.shutdownNow();
+            progreso = null;
+        }
+        salida.println(resumenJson());
+    }
+
+    public static void generado(int profundidad) {
+        generados.increment();
+        generadosProfundidad[Math.min(profundidad, MAX_PROFUNDIDAD - 1)].increment();
+    }
+
+    public static void expandido(int profundidad) {
+        expandidos.increment();
+        expandidosProfundidad[Math.min(profundidad, MAX_PROFUNDIDAD - 1)].increment();
+    }
+
+    public static void duplicado() {
+        duplicados.increment();
+    }
+
+    /**
+     * QUE: Suma el tiempo transcurrido desde 'desde' (System.nanoTime) a una
+     * fase.
+     */
+    public static void sumar(int fase, long desde) {
+        nanosFase[fase].add(System.nanoTime() - desde);
+    }
+
+    /**
+     * QUE: Registra el cambio de tamaño de una frontera.
+     * POR QUE: Con varias búsquedas a la vez el tamaño es la suma de todas
+     * sus fronteras, igual que la memoria que ocupan.
+     */
+    public static void cambioFrontera(int delta, int tamanoActual) {
+        tamanoFrontera.add(delta);
+        picoFrontera.accumulate(tamanoActual);
+    }
+
+    private static void imprimirProgreso(PrintStream salida) {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        salida.println(String.format(Locale.ROOT,
+                "[instrumentacion] %.1f s: generados=%d expandidos=%d duplicados=%d frontera=%d pico=%d",
+                segundos, generados.sum(), expandidos.sum(), duplicados.sum(), tamanoFrontera.sum(),
+                picoFrontera.get()));
+    }
+
+    /**
+     * QUE: Resumen de todos los contadores en una línea JSON.
+     * POR QUE: Una línea es fácil de separar del resto de stderr y de
+     * procesar con herramientas externas. El factor de ramificación de una
+     * profundidad es generados / expandidos en ella.
+     */
+    static String resumenJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"tiempoNanos\":").append(System.nanoTime() - inicio)
+                .append(",\"generados\":").append(generados.sum())
+                .append(",\"expandidos\":").append(expandidos.sum())
+                .append(",\"duplicados\":").append(duplicados.sum())
+                .append(",\"picoFrontera\":").append(picoFrontera.get())
+                .append(",\"nanosFase\":{");
+        for (int f = 0; f < NOMBRES_FASES.length; f++) {
+            if (f > 0) {
+                json.append(',');
+            }
+            json.append('"').append(NOMBRES_FASES[f]).append("\":").append(nanosFase[f].sum());
+        }
+        json.append("},\"ramificacion\":[");
+        boolean primero = true;
+        for (int d = 0; d < MAX_PROFUNDIDAD; d++) {
+            long e = expandidosProfundidad[d].sum();
+            if (e == 0) {
+                continue;
+            }
+            long g = generadosProfundidad[d].sum();
+            json.append(primero ? "" : ",")
+                    .append("{\"profundidad\":").append(d)
+                    .append(",\"expandidos\":").append(e)
+                    .append(",\"generados\":").append(g)
+                    .append(",\"factor\":").append(String.format(Locale.ROOT, "%.3f", (double) g / e))
+                    .append('}');
+            primero = false;
+        }
+        return json.append("]}").toString();
+    }
+}
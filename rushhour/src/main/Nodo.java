@@ -12,8 +12,9 @@ public class Nodo implements Comparable<Nodo> {
 
     private int ID;
     private Nodo padre;
-    private String accion;
-    private String estado;
+    private int accion;
+    private Disposicion disposicion;
+    private long estado;
     private int costo;
     private int profundidad;
     private double heuristica;
@@ -25,15 +26,24 @@ public class Nodo implements Comparable<Nodo> {
      * QUE: Constructor para el nodo raíz.
      * POR QUE: Inicializar la búsqueda con el estado inicial del juego.
      */
-    public Nodo(String estadoInicial) {
+    public Nodo(Tablero estadoInicial) {
+        this(estadoInicial, "BFS", new HeuristicaCero());
+    }
+
+    /**
+     * QUE: Constructor para el nodo raíz de una estrategia concreta.
+     * POR QUE: En A* y GREEDY el valor de la raíz ya incluye la heurística.
+     */
+    public Nodo(Tablero estadoInicial, String estrategia, Heuristica heuristica) {
         this.ID = nextID++;
         this.padre = null;
-        this.accion = "none";
-        this.estado = estadoInicial;
+        this.accion = Accion.NINGUNA;
+        this.disposicion = estadoInicial.getDisposicion();
+        this.estado = estadoInicial.getEstado();
         this.costo = 0;
         this.profundidad = 0;
-        this.heuristica = 0;
-        this.valor = 0;
+        this.heuristica = heuristica.evaluar(this.disposicion, this.estado);
+        this.valor = calcularValorRaiz(estrategia, (int) this.heuristica);
     }
 
     /**
@@ -41,39 +51,99 @@ public class Nodo implements Comparable<Nodo> {
      * POR QUE: Crear nuevos nodos durante la expansión del árbol de búsqueda.
      */
     public Nodo(Nodo padre, Sucesor sucesor, String estrategia) {
+        this(padre, sucesor, estrategia, new HeuristicaCero());
+    }
+
+    /**
+     * QUE: Constructor para un nodo sucesor con heurística.
+     * POR QUE: Las estrategias informadas necesitan h para calcular el valor.
+     */
+    public Nodo(Nodo padre, Sucesor sucesor, String estrategia, Heuristica heuristica) {
+        this(padre, sucesor.getAccionCodificada(), sucesor.getCost(), sucesor.getEstado(), estrategia, heuristica);
+    }
+
+    /**
+     * QUE: Constructor para un nodo sucesor a partir de los datos que entrega
+     * un VisitanteSucesores.
+     * POR QUE: Permite expandir sin crear objetos Sucesor intermedios.
+     */
+    public Nodo(Nodo padre, int accion, int costoPaso, long estado, String estrategia, Heuristica heuristica) {
         this.ID = nextID++;
         this.padre = padre;
-        this.accion = sucesor.getAction();
-        this.estado = sucesor.getNewState().levelToString();
+        this.accion = accion;
+        this.disposicion = padre.getDisposicion();
+        this.estado = estado;
 
         this.profundidad = padre.getProfundidad() + 1;
-        this.costo = padre.getCosto() + sucesor.getCost();
-        this.heuristica = 0;
+        this.costo = padre.getCosto() + costoPaso;
+        this.heuristica = heuristica.evaluar(this.disposicion, estado);
 
         // Asignar valor según la estrategia de búsqueda
         asignarValor(estrategia);
     }
 
+    /**
+     * QUE: Constructor con todos los campos ya calculados.
+     * POR QUE: Materializa un nodo guardado en PoolNodos (ID = índice del
+     * pool) para imprimir el camino de la solución.
+     */
+    public Nodo(int ID, Nodo padre, int accion, Disposicion disposicion, long estado, int costo,
+            int profundidad, int heuristica, int valor) {
+        this.ID = ID;
+        this.padre = padre;
+        this.accion = accion;
+        this.disposicion = disposicion;
+        this.estado = estado;
+        this.costo = costo;
+        this.profundidad = profundidad;
+        this.heuristica = heuristica;
+        this.valor = valor;
+    }
+
     /**
      * QUE: Asigna el valor del nodo según la estrategia de búsqueda.
      * POR QUE: Determinar la prioridad del nodo en la frontera según la estrategia.
      * Separar esta lógica mejora la claridad y facilita añadir estrategias.
      */
     private void asignarValor(String estrategia) {
+        this.valor = calcularValor(estrategia, this.costo, this.profundidad, (int) this.heuristica);
+    }
+
+    /**
+     * QUE: Calcula el valor de prioridad de un nodo no raíz.
+     * POR QUE: Lo comparten los objetos Nodo y la búsqueda sobre PoolNodos,
+     * que no crea objetos.
+     */
+    public static int calcularValor(String estrategia, int costo, int profundidad, int heuristica) {
         switch (estrategia) {
             case "BFS":
-                
-                this.valor = this.profundidad;
-                break;
+                return profundidad;
             case "DFS":
-                this.valor = (int) (1000.0 / (this.profundidad + 1));
-                break;
+            case "DLS":
+            case "IDDFS":
+                return (int) (1000.0 / (profundidad + 1));
             case "UCS":
-                this.valor = this.costo;
-                break;
+                return costo;
+            case "A*":
+            case "IDA*":
+                return costo + heuristica;
+            case "GREEDY":
+                return heuristica;
             default:
-                this.valor = this.profundidad;
+                return profundidad;
+        }
+    }
+
+    /**
+     * QUE: Calcula el valor de prioridad del nodo raíz.
+     * POR QUE: La raíz vale 0 salvo en las estrategias informadas, donde ya
+     * incluye la heurística.
+     */
+    public static int calcularValorRaiz(String estrategia, int heuristica) {
+        if (estrategia.equals("A*") || estrategia.equals("IDA*") || estrategia.equals("GREEDY")) {
+            return calcularValor(estrategia, 0, 0, heuristica);
         }
+        return 0;
     }
 
     /**
@@ -110,8 +180,8 @@ public class Nodo implements Comparable<Nodo> {
         String parentIdStr = (this.padre != null) ? String.valueOf(this.padre.getID()) : "none";
         int h = (int) this.heuristica;
 
-        return "[" + this.ID + "," + parentIdStr + "," + this.accion + "," +
-                this.estado + "," + this.costo + "," + this.profundidad + "," +
+        return "[" + this.ID + "," + parentIdStr + "," + getAccion() + "," +
+                this.disposicion.decodificar(this.estado) + "," + this.costo + "," + this.profundidad + "," +
                 h + "," + this.valor + "]";
     }
 
@@ -156,17 +226,33 @@ public class Nodo implements Comparable<Nodo> {
      * POR QUE: Mostrar la secuencia de movimientos de la solución.
      */
     public String getAccion() {
+        return Accion.aTexto(disposicion, accion);
+    }
+
+    /**
+     * QUE: Obtiene la acción codificada que generó este nodo.
+     * POR QUE: Evita construir el String durante la búsqueda.
+     */
+    public int getAccionCodificada() {
         return accion;
     }
 
     /**
-     * QUE: Obtiene el estado del tablero en este nodo.
+     * QUE: Obtiene el estado codificado del tablero en este nodo.
      * POR QUE: Comparar estados para detección de repetidos y verificar objetivo.
      */
-    public String getEstado() {
+    public long getEstado() {
         return estado;
     }
 
+    /**
+     * QUE: Obtiene la disposición de vehículos compartida por todo el árbol.
+     * POR QUE: Necesaria para decodificar el estado al imprimir el nodo.
+     */
+    public Disposicion getDisposicion() {
+        return disposicion;
+    }
+
     /**
      * QUE: Obtiene el costo acumulado hasta este nodo.
      * POR QUE: Calcular el valor de prioridad en UCS y A*.
@@ -185,7 +271,7 @@ public class Nodo implements Comparable<Nodo> {
 
     /**
      * QUE: Obtiene el valor heurístico del nodo.
-     * POR QUE: Usar en estrategias informadas (GREEDY, A*) cuando se implementen.
+     * POR QUE: Usar en estrategias informadas (GREEDY, A*).
      */
     public double getHeuristica() {
         return heuristica;
@@ -0,0 +1,150 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * QUE: Almacén de nodos de búsqueda en arrays paralelos de primitivos; cada
+ * nodo es un índice y su ID es ese mismo índice.
+ * POR QUE: Una búsqueda de millones de nodos como objetos Nodo (con su
+ * String de acción y referencia al padre) genera decenas de millones de
+ * objetos y mucha presión sobre el GC. Aquí un nodo ocupa 32 bytes y no se
+ * crea ningún objeto por nodo.
+ */
+public class PoolNodos {
+
+    /** Índice de padre del nodo raíz. */
+    public static final int SIN_PADRE = -1;
+
+    private long[] estado;
+    private long[] hash;
+    private int[] padre;
+    private short[] accion;
+    private int[] costo;
+    private int[] profundidad;
+    private short[] heuristica;
+    private int tamano;
+
+    /**
+     * QUE: Crea un pool con capacidad inicial para 'capacidad' nodos.
+     * POR QUE: Los arrays crecen bajo demanda, pero reservar evita copias.
+     */
+    public PoolNodos(int capacidad) {
+        capacidad = Math.max(capacidad, 16);
+        this.estado = new long[capacidad];
+        this.hash = new long[capacidad];
+        this.padre = new int[capacidad];
+        this.accion = new short[capacidad];
+        this.costo = new int[capacidad];
+        this.profundidad = new int[capacidad];
+        this.heuristica = new short[capacidad];
+    }
+
+    /**
+     * QUE: Añade un nodo y devuelve su índice.
+     * POR QUE: Los índices se asignan en orden creciente, así que sirven como
+     * ID de desempate igual que el antiguo contador Nodo.nextID.
+     */
+    public int crear(long estado, int padre, int accion, int costo, int profundidad, int heuristica) {
+        if (tamano == this.estado.length) {
+            crecer();
+        }
+        int n = tamano++;
+        this.estado[n] = estado;
+        this.padre[n] = padre;
+        this.accion[n] = (short) accion;
+        this.costo[n] = costo;
+        this.profundidad[n] = profundidad;
+        this.heuristica[n] = (short) heuristica;
+        return n;
+    }
+
+    /**
+     * QUE: Amplía todos los arrays un 50%.
+     * POR QUE: Crecimiento geométrico: coste amortizado O(1) por nodo.
+     */
+    private void crecer() {
+        int capacidad = estado.length + (estado.length >> 1);
+        estado = Arrays.copyOf(estado, capacidad);
+        hash = Arrays.copyOf(hash, capacidad);
+        padre = Arrays.copyOf(padre, capacidad);
+        accion = Arrays.copyOf(accion, capacidad);
+        costo = Arrays.copyOf(costo, capacidad);
+        profundidad = Arrays.copyOf(profundidad, capacidad);
+        heuristica = Arrays.copyOf(heuristica, capacidad);
+    }
+
+    /**
+     * QUE: Vacía el pool conservando los arrays.
+     * POR QUE: Reutilizar la memoria entre búsquedas.
+     */
+    public void limpiar() {
+        tamano = 0;
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    public long getEstado(int n) {
+        return estado[n];
+    }
+
+    /**
+     * QUE: Hash Zobrist guardado con el nodo.
+     * POR QUE: Solo es válido para nodos creados con setHash; Busqueda lo
+     * usa para no recalcularlo al sacar el nodo de la frontera.
+     */
+    public long getHash(int n) {
+        return hash[n];
+    }
+
+    public void setHash(int n, long h) {
+        hash[n] = h;
+    }
+
+    public int getPadre(int n) {
+        return padre[n];
+    }
+
+    public int getAccion(int n) {
+        return accion[n];
+    }
+
+    public int getCosto(int n) {
+        return costo[n];
+    }
+
+    public int getProfundidad(int n) {
+        return profundidad[n];
+    }
+
+    public int getHeuristica(int n) {
+        return heuristica[n];
+    }
+
+    /**
+     * QUE: Construye los objetos Nodo del camino desde la raíz hasta n.
+     * POR QUE: Solo los nodos de la solución se materializan, para imprimirlos
+     * con Nodo.getCamino() y Nodo.toString().
+     */
+    public Nodo aNodo(int n, Disposicion disposicion, String estrategia) {
+        int longitud = 0;
+        for (int i = n; i != SIN_PADRE; i = padre[i]) {
+            longitud++;
+        }
+        int[] camino = new int[longitud];
+        for (int i = n, k = longitud - 1; i != SIN_PADRE; i = padre[i], k--) {
+            camino[k] = i;
+        }
+
+        Nodo nodo = null;
+        for (int i : camino) {
+            int valor = (nodo == null)
+                    ? Nodo.calcularValorRaiz(estrategia, heuristica[i])
+                    : Nodo.calcularValor(estrategia, costo[i], profundidad[i], heuristica[i]);
+            nodo = new Nodo(i, nodo, accion[i], disposicion, estado[i], costo[i], profundidad[i], heuristica[i],
+                    valor);
+        }
+        return nodo;
+    }
+}
@@ -0,0 +1,111 @@
+package main;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * QUE: Resuelve una lista de niveles con varios hilos y escribe una línea de
+ * resultado por nivel en el orden de entrada.
+ * POR QUE: Lanzar una JVM por nivel hace que el arranque y el calentamiento
+ * del JIT dominen el tiempo total. Aquí cada hilo crea un único Resolutor y
+ * lo reutiliza (con su pool, frontera y lista cerrada) para todos los niveles
+ * que le tocan; los hilos toman el siguiente nivel de un contador atómico.
+ *
+ * Formato de cada línea:
+ *   nivel,longitud,coste,expandidos,ms   si hay solución
+ *   nivel,none,none,expandidos,ms        si no la hay
+ *   nivel,error,codigo                   si el nivel no es válido
+ */
+public class ResolucionPorLotes {
+
+    private final List<String> niveles;
+    private final int numHilos;
+    private final Supplier<Resolutor> fabrica;
+    private final boolean canonico;
+
+    /**
+     * QUE: Configura el lote.
+     * POR QUE: La fábrica se invoca una vez por hilo, así que cada hilo tiene
+     * su propio Resolutor y no comparten estructuras.
+     */
+    public ResolucionPorLotes(List<String> niveles, int numHilos, Supplier<Resolutor> fabrica) {
+        this(niveles, numHilos, fabrica, false);
+    }
+
+    /**
+     * QUE: Configura el lote eligiendo si se resuelve la FormaCanonica de
+     * cada nivel.
+     * POR QUE: Con una caché, los niveles que solo difieren en las letras de
+     * sus vehículos se resuelven una sola vez. Longitud y coste no dependen
+     * de las letras, y cada línea sigue mostrando el nivel original.
+     */
+    public ResolucionPorLotes(List<String> niveles, int numHilos, Supplier<Resolutor> fabrica, boolean canonico) {
+        this.niveles = niveles;
+        this.numHilos = numHilos;
+        this.fabrica = fabrica;
+        this.canonico = canonico;
+    }
+
+    /**
+     * QUE: Resuelve todos los niveles y escribe los resultados en 'salida'.
+     * POR QUE: El hilo que llama escribe cada línea en cuanto está lista la
+     * suya y todas las anteriores, así que la salida va saliendo en orden sin
+     * esperar al final del lote.
+     */
+    public void ejecutar(PrintStream salida) {
+        List<CompletableFuture<String>> resultados = new ArrayList<>(niveles.size());
+        for (int i = 0; i < niveles.size(); i++) {
+            resultados.add(new CompletableFuture<>());
+        }
+
+        AtomicInteger siguiente = new AtomicInteger();
+        Thread[] hilos = new Thread[numHilos];
+        for (int w = 0; w < numHilos; w++) {
+            hilos[w] = new Thread(() -> {
+                Resolutor resolutor = fabrica.get();
+                int i;
+                while ((i = siguiente.getAndIncrement()) < niveles.size()) {
+                    try {
+                        resultados.get(i).complete(resolver(resolutor, niveles.get(i), canonico));
+                    } catch (RuntimeException | Error e) {
+                        resultados.get(i).completeExceptionally(e);
+                    }
+                }
+            }, "lote-" + w);
+            hilos[w].setDaemon(true);
+            hilos[w].start();
+        }
+
+        for (CompletableFuture<String> resultado : resultados) {
+            salida.println(resultado.join());
+        }
+    }
+
+    /**
+     * QUE: Valida y resuelve un nivel y construye su línea de resultado.
+     * POR QUE: Nivel ya no guarda estado estático, así que validar y crear el
+     * tablero es seguro desde cualquier hilo.
+     */
+    private static String resolver(Resolutor resolutor, String level, boolean canonico) {
+        Nivel nivel = new Nivel(level);
+        int codigo = nivel.verify_level();
+        if (codigo != 0) {
+            return level + ",error," + codigo;
+        }
+        if (canonico) {
+            nivel = new Nivel(new FormaCanonica(level).getNivelCanonico());
+        }
+        Tablero tablero = Tablero.create_tablero(nivel);
+        Nodo solucion = resolutor.resolver(tablero);
+        long ms = resolutor.getTiempoNanos() / 1_000_000;
+        if (solucion == null) {
+            return level + ",none,none," + resolutor.getExpandidos() + "," + ms;
+        }
+        return level + "," + solucion.getProfundidad() + "," + solucion.getCosto() + ","
+                + resolutor.getExpandidos() + "," + ms;
+    }
+}
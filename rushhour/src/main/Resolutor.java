@@ -0,0 +1,33 @@
+package main;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * QUE: Motor de búsqueda capaz de resolver un tablero.
+ * POR QUE: El comando 'solve' trata igual a todos los motores (búsqueda en
+ * grafo, IDA*, ...) y solo cambia cuál instancia.
+ */
+public interface Resolutor {
+
+    /**
+     * QUE: Resuelve el tablero.
+     * POR QUE: Devuelve el nodo objetivo, cuyo getCamino() es la solución, o
+     * null si no se encontró.
+     */
+    Nodo resolver(Tablero inicial);
+
+    long getGenerados();
+
+    long getExpandidos();
+
+    long getTiempoNanos();
+
+    /**
+     * QUE: Líneas de estadísticas propias del motor.
+     * POR QUE: Se imprimen tras las comunes (generados, expandidos, tiempo).
+     */
+    default List<String> getDetalles() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,80 @@
+package main;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * QUE: Resolutor que consulta la CacheSoluciones antes de buscar y guarda en
+ * ella las soluciones nuevas.
+ * POR QUE: solve y batch envuelven su motor con él sin cambiar nada más. La
+ * clave es el nivel más la configuración que decide el camino (estrategia y
+ * heurística), así que un acierto imprime exactamente la misma salida que la
+ * búsqueda original.
+ */
+public class ResolutorConCache implements Resolutor {
+
+    private final CacheSoluciones cache;
+    private final String configuracion;
+    private final Resolutor resolutor;
+
+    private boolean acierto;
+    private long tiempoNanos;
+
+    /**
+     * QUE: Envuelve un resolutor.
+     * POR QUE: 'configuracion' distingue soluciones del mismo nivel obtenidas
+     * con opciones distintas (ej. "A* recursive").
+     */
+    public ResolutorConCache(CacheSoluciones cache, String configuracion, Resolutor resolutor) {
+        this.cache = cache;
+        this.configuracion = configuracion;
+        this.resolutor = resolutor;
+    }
+
+    @Override
+    public Nodo resolver(Tablero inicial) {
+        long inicio = System.nanoTime();
+        String clave = inicial.levelToString() + " " + configuracion;
+        try {
+            Nodo solucion = cache.buscar(clave, inicial);
+            acierto = solucion != null;
+            if (solucion == null) {
+                solucion = resolutor.resolver(inicial);
+                if (solucion != null) {
+                    cache.guardar(clave, solucion);
+                }
+            }
+            tiempoNanos = System.nanoTime() - inicio;
+            return solucion;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error en la cache de soluciones", e);
+        }
+    }
+
+    @Override
+    public long getGenerados() {
+        return acierto ? 0 : resolutor.getGenerados();
+    }
+
+    @Override
+    public long getExpandidos() {
+        return acierto ? 0 : resolutor.getExpandidos();
+    }
+
+    @Override
+    public long getTiempoNanos() {
+        return tiempoNanos;
+    }
+
+    @Override
+    public List<String> getDetalles() {
+        List<String> detalles = new ArrayList<>();
+        detalles.add(acierto ? "Cache: acierto" : "Cache: fallo");
+        if (!acierto) {
+            detalles.addAll(resolutor.getDetalles());
+        }
+        return detalles;
+    }
+}
@@ -1,19 +1,49 @@
 package main;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.List;
 
 public class Rushhour {
 
+    private static final String ERROR_TAMANO_TABLA =
+            "Error: El tamano de la tabla debe estar entre 0 y " + TablaTransposicion.MAX_ENTRADAS;
+
     /**
      * QUE: Punto de entrada principal que procesa argumentos de línea de comandos.
      * POR QUE: Permitir ejecutar el programa desde terminal con diferentes
-     * comandos.
+     * comandos. Con -Drushhour.instrumentacion=true el comando se ejecuta
+     * entre el progreso periódico y el resumen JSON de Instrumentacion, ambos
+     * por stderr.
      */
     public static void main(String[] args) {
         if (args.length < 1) {
             return;
         }
 
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.iniciar();
+            try {
+                ejecutar(args);
+            } finally {
+                Instrumentacion.terminar(System.err);
+            }
+        } else {
+            ejecutar(args);
+        }
+    }
+
+    /**
+     * QUE: Despacha el comando indicado en el primer argumento.
+     * POR QUE: El servidor ejecuta cada petición por aquí, con la misma
+     * salida que desde la línea de comandos.
+     */
+    static void ejecutar(String[] args) {
         String command = args[0];
 
         switch (command) {
@@ -26,6 +56,21 @@ public class Rushhour {
             case "successors":
                 handleSuccessors(args);
                 break;
+            case "solve":
+                handleSolve(args);
+                break;
+            case "batch":
+                handleBatch(args);
+                break;
+            case "explore":
+                handleExplore(args);
+                break;
+            case "serve":
+                handleServe(args);
+                break;
+            case "pdb":
+                handlePdb(args);
+                break;
             default:
                 System.out.println("Comando desconocido: " + command);
         }
@@ -43,8 +88,7 @@ public class Rushhour {
         }
 
         String level = args[2];
-        new Nivel(level);
-        int resultado = Nivel.verify_level(Nivel.getArrayLevel());
+        int resultado = new Nivel(level).verify_level();
         System.out.println(resultado);
     }
 
@@ -61,7 +105,7 @@ public class Rushhour {
         String level = args[2];
         Nivel nivel = new Nivel(level);
 
-        int resultado = Nivel.verify_level(Nivel.getArrayLevel());
+        int resultado = nivel.verify_level();
         if (resultado != 0) {
             System.out.println("Error: Nivel no valido (codigo: " + resultado + ")");
             return;
@@ -73,10 +117,675 @@ public class Rushhour {
             return;
         }
 
+        // Mismos bytes que suc.toString() con println, sin crear los Strings.
         ArrayList<Sucesor> sucesores = tablero.getSuccessors();
+        SalidaBuffer salida = new SalidaBuffer(System.out);
+        long t = Instrumentacion.ACTIVA ? System.nanoTime() : 0;
         for (Sucesor suc : sucesores) {
-            System.out.println(suc.toString());
+            salida.sucesor(tablero.getDisposicion(), suc.getAccionCodificada(), suc.getEstado(), suc.getCost());
         }
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.sumar(Instrumentacion.FASE_CADENAS, t);
+        }
+        salida.vaciar();
+    }
+
+    /**
+     * QUE: Maneja el comando 'solve' que busca una solución del nivel.
+     * POR QUE: Ejecuta la búsqueda completa e imprime el camino con el formato
+     * de Nodo; las estadísticas van a stderr para no mezclarse con él.
+     */
+    private static void handleSolve(String[] args) {
+        String uso = "Uso: java -jar rushhour.jar solve -s <nivel>"
+                + " --strategy <BFS|DFS|DLS|IDDFS|UCS|A*|GREEDY|IDA*|BIBFS>"
+                + " [--max-depth N] [--heuristic <0|blocking|recursive>] [--frontier <bucket|heap>]"
+                + " [--tt-size N] [--goal <nivel>] [--threads N] [--db <fichero>] [--cache <fichero>] [--symmetry]"
+                + " [--trace <fichero|->] [--pdb <fichero>]\n"
+                + "  BIBFS sin --goal recorre antes toda la componente del nivel para hallar las metas"
+                + " y cuesta mas que BFS; con --goal arranca directamente desde esa meta.";
+        if (args.length < 3 || !args[1].equals("-s")) {
+            System.out.println(uso);
+            return;
+        }
+
+        String estrategia = null;
+        String nombreHeuristica = null;
+        int profundidadMaxima = Busqueda.SIN_LIMITE;
+        String tipoFrontera = Busqueda.FRONTERA_CUBETAS;
+        int entradasTabla = BusquedaIDA.TABLA_POR_DEFECTO;
+        String nivelMeta = null;
+        int hilos = 1;
+        String ficheroBase = null;
+        String ficheroCache = null;
+        String ficheroTraza = null;
+        String ficheroPatrones = null;
+        boolean simetria = false;
+
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("--symmetry")) {
+                simetria = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.out.println(uso);
+                return;
+            }
+            switch (args[i]) {
+                case "--strategy":
+                    estrategia = args[++i];
+                    break;
+                case "--max-depth":
+                    try {
+                        profundidadMaxima = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        System.out.println("Error: La profundidad maxima debe ser un numero");
+                        return;
+                    }
+                    break;
+                case "--heuristic":
+                    nombreHeuristica = args[++i];
+                    break;
+                case "--frontier":
+                    tipoFrontera = args[++i];
+                    if (!tipoFrontera.equals(Busqueda.FRONTERA_CUBETAS)
+                            && !tipoFrontera.equals(Busqueda.FRONTERA_MONTICULO)) {
+                        System.out.println(uso);
+                        return;
+                    }
+                    break;
+                case "--tt-size":
+                    try {
+                        entradasTabla = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        System.out.println("Error: El tamano de la tabla debe ser un numero");
+                        return;
+                    }
+                    if (!esTamanoTablaValido(entradasTabla)) {
+                        System.out.println(ERROR_TAMANO_TABLA);
+                        return;
+                    }
+                    break;
+                case "--goal":
+                    nivelMeta = args[++i];
+                    break;
+                case "--db":
+                    ficheroBase = args[++i];
+                    break;
+                case "--cache":
+                    ficheroCache = args[++i];
+                    break;
+                case "--trace":
+                    ficheroTraza = args[++i];
+                    break;
+                case "--pdb":
+                    ficheroPatrones = args[++i];
+                    break;
+                case "--threads":
+                    try {
+                        hilos = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        System.out.println("Error: El numero de hilos debe ser un numero");
+                        return;
+                    }
+                    break;
+                default:
+                    System.out.println("Opcion desconocida: " + args[i]);
+                    return;
+            }
+        }
+
+        if (estrategia == null || !esEstrategiaSolve(estrategia)) {
+            System.out.println(uso);
+            return;
+        }
+        boolean bidireccional = "BIBFS".equals(estrategia);
+
+        if ((nivelMeta != null && !bidireccional) || (ficheroBase != null && !estrategia.equals("BFS")) || hilos < 1
+                || (estrategia.equals("DLS") && profundidadMaxima == Busqueda.SIN_LIMITE)
+                || (ficheroPatrones != null && !estrategia.equals("A*") && !estrategia.equals("IDA*"))
+                || (hilos > 1 && !estrategia.equals("BFS") && !BusquedaParalela.admiteEstrategia(estrategia))) {
+            System.out.println(uso);
+            return;
+        }
+
+        if (nombreHeuristica == null) {
+            nombreHeuristica = heuristicaPorDefecto(estrategia);
+        }
+        Heuristica heuristica = Heuristica.porNombre(nombreHeuristica);
+        if (heuristica == null) {
+            System.out.println("Heuristica desconocida: " + nombreHeuristica);
+            return;
+        }
+
+        String level = args[2];
+        Nivel nivel = new Nivel(level);
+
+        int resultado = nivel.verify_level();
+        if (resultado != 0) {
+            System.out.println("Error: Nivel no valido (codigo: " + resultado + ")");
+            return;
+        }
+
+        // Con --symmetry se resuelve la forma canónica y el camino se traduce
+        // a las letras reales al imprimirlo.
+        FormaCanonica forma = simetria ? new FormaCanonica(level) : null;
+        Tablero tablero = Tablero.create_tablero((forma == null) ? nivel : new Nivel(forma.getNivelCanonico()));
+        if (tablero == null) {
+            System.out.println("Error: No se pudo crear el tablero");
+            return;
+        }
+
+        long[] metas = null;
+        if (nivelMeta != null) {
+            Tablero meta = crearTableroMeta((forma == null) ? nivelMeta : forma.aCanonica(nivelMeta),
+                    tablero.getDisposicion());
+            if (meta == null) {
+                return;
+            }
+            metas = new long[] { meta.getEstado() };
+        }
+
+        BaseDistancias base = null;
+        if (ficheroBase != null) {
+            base = abrirBaseDistancias(ficheroBase, tablero);
+            if (base == null) {
+                return;
+            }
+            if (base.distancia(tablero.getEstado()) == BaseDistancias.NO_ENCONTRADO) {
+                System.err.println("Estado no encontrado en la base de datos; se resuelve con busqueda");
+                base = null;
+            }
+        }
+        if (ficheroPatrones != null) {
+            BasePatrones patrones = abrirBasePatrones(ficheroPatrones, tablero);
+            if (patrones == null) {
+                return;
+            }
+            heuristica = new HeuristicaMaxima(patrones, heuristica);
+            // La caché no mezcla caminos hallados con y sin la base.
+            nombreHeuristica += "+pdb";
+        }
+        Resolutor busqueda = (base != null) ? base
+                : crearResolutor(estrategia, heuristica, profundidadMaxima, tipoFrontera, entradasTabla, metas, hilos);
+        SalidaBuffer traza = null;
+        if (ficheroTraza != null) {
+            if (!(busqueda instanceof Busqueda)) {
+                System.err.println("La traza solo esta disponible para BFS, DFS, UCS, A* y GREEDY con un hilo");
+            } else {
+                traza = abrirTraza(ficheroTraza);
+                if (traza == null) {
+                    return;
+                }
+                traza.setFormaCanonica(forma);
+                ((Busqueda) busqueda).setTraza(traza);
+            }
+        }
+        if (ficheroCache != null) {
+            if (base != null || metas != null || profundidadMaxima != Busqueda.SIN_LIMITE) {
+                System.err.println("La cache no se usa con --db, --goal ni --max-depth");
+            } else {
+                CacheSoluciones cache = abrirCache(ficheroCache);
+                if (cache == null) {
+                    return;
+                }
+                busqueda = new ResolutorConCache(cache,
+                        configuracionCache(estrategia, nombreHeuristica, hilos, entradasTabla), busqueda);
+            }
+        }
+        Nodo solucion = busqueda.resolver(tablero);
+        if (traza != null) {
+            traza.cerrar();
+        }
+
+        if (solucion == null) {
+            System.out.println("No se encontro solucion");
+        } else {
+            for (Nodo nodo : solucion.getCamino()) {
+                long t = Instrumentacion.ACTIVA ? System.nanoTime() : 0;
+                String linea = (forma == null) ? nodo.toString() : forma.aReal(nodo.toString());
+                if (Instrumentacion.ACTIVA) {
+                    Instrumentacion.sumar(Instrumentacion.FASE_CADENAS, t);
+                }
+                System.out.println(linea);
+            }
+        }
+
+        System.err.println("Nodos generados: " + busqueda.getGenerados());
+        System.err.println("Nodos expandidos: " + busqueda.getExpandidos());
+        System.err.println("Tiempo: " + (busqueda.getTiempoNanos() / 1_000_000) + " ms");
+        for (String detalle : busqueda.getDetalles()) {
+            System.err.println(detalle);
+        }
+    }
+
+    /**
+     * QUE: Comprueba el valor de --tt-size: 0 desactiva la tabla y el máximo
+     * es TablaTransposicion.MAX_ENTRADAS.
+     * POR QUE: Un tamaño negativo o mayor no se puede reservar.
+     */
+    private static boolean esTamanoTablaValido(int entradasTabla) {
+        return entradasTabla >= 0 && entradasTabla <= TablaTransposicion.MAX_ENTRADAS;
+    }
+
+    /**
+     * QUE: Comprueba si una estrategia es válida para solve y batch.
+     * POR QUE: Además de las de Busqueda están IDA*, la anchura bidireccional
+     * y las búsquedas en profundidad limitada e iterativa (DLS con
+     * --max-depth obligatorio).
+     */
+    private static boolean esEstrategiaSolve(String estrategia) {
+        return estrategia.equals("IDA*") || estrategia.equals("BIBFS") || Busqueda.esEstrategiaValida(estrategia)
+                || BusquedaProfundidad.esEstrategiaValida(estrategia);
+    }
+
+    /**
+     * QUE: Heurística que se usa cuando no se indica --heuristic.
+     * POR QUE: Las estrategias informadas usan la más precisa; el resto, 0.
+     */
+    private static String heuristicaPorDefecto(String estrategia) {
+        boolean informada = estrategia.equals("A*") || estrategia.equals("GREEDY") || estrategia.equals("IDA*");
+        return informada ? "recursive" : "0";
+    }
+
+    /**
+     * QUE: Crea el motor de búsqueda que corresponde a las opciones.
+     * POR QUE: solve y batch eligen el motor con las mismas reglas.
+     */
+    private static Resolutor crearResolutor(String estrategia, Heuristica heuristica, int profundidadMaxima,
+            String tipoFrontera, int entradasTabla, long[] metas, int hilos) {
+        if (estrategia.equals("IDA*")) {
+            return new BusquedaIDA(heuristica, profundidadMaxima, entradasTabla);
+        }
+        if (estrategia.equals("BIBFS")) {
+            return new BusquedaBidireccional(profundidadMaxima, metas);
+        }
+        if (BusquedaProfundidad.esEstrategiaValida(estrategia)) {
+            return new BusquedaProfundidad(estrategia, heuristica, profundidadMaxima, entradasTabla);
+        }
+        if (hilos > 1 && estrategia.equals("BFS")) {
+            return new BusquedaAnchuraParalela(heuristica, profundidadMaxima, hilos);
+        }
+        if (hilos > 1) {
+            return new BusquedaParalela(estrategia, heuristica, profundidadMaxima, hilos);
+        }
+        return new Busqueda(estrategia, heuristica, profundidadMaxima, tipoFrontera);
+    }
+
+    /**
+     * QUE: Maneja el comando 'batch' que resuelve todos los niveles de un
+     * fichero (uno por línea).
+     * POR QUE: Una sola JVM resuelve miles de niveles con varios hilos; cada
+     * resultado se imprime en el orden del fichero y el resumen va a stderr.
+     */
+    private static void handleBatch(String[] args) {
+        String uso = "Uso: java -jar rushhour.jar batch --input <fichero>"
+                + " --strategy <BFS|DFS|DLS|IDDFS|UCS|A*|GREEDY|IDA*|BIBFS>"
+                + " [--threads N] [--max-depth N] [--heuristic <0|blocking|recursive>] [--frontier <bucket|heap>]"
+                + " [--tt-size N] [--cache <fichero>] [--symmetry]\n"
+                + "  BIBFS recorre antes toda la componente de cada nivel para hallar las metas y cuesta mas que BFS.";
+
+        String fichero = null;
+        String ficheroCache = null;
+        String estrategia = null;
+        String nombreHeuristica = null;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        int profundidadMaxima = Busqueda.SIN_LIMITE;
+        String tipoFrontera = Busqueda.FRONTERA_CUBETAS;
+        int entradasTabla = BusquedaIDA.TABLA_POR_DEFECTO;
+        boolean simetria = false;
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--symmetry")) {
+                simetria = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.out.println(uso);
+                return;
+            }
+            try {
+                switch (args[i]) {
+                    case "--input":
+                        fichero = args[++i];
+                        break;
+                    case "--strategy":
+                        estrategia = args[++i];
+                        break;
+                    case "--heuristic":
+                        nombreHeuristica = args[++i];
+                        break;
+                    case "--threads":
+                        hilos = Integer.parseInt(args[++i]);
+                        break;
+                    case "--max-depth":
+                        profundidadMaxima = Integer.parseInt(args[++i]);
+                        break;
+                    case "--frontier":
+                        tipoFrontera = args[++i];
+                        break;
+                    case "--tt-size":
+                        entradasTabla = Integer.parseInt(args[++i]);
+                        break;
+                    case "--cache":
+                        ficheroCache = args[++i];
+                        break;
+                    default:
+                        System.out.println("Opcion desconocida: " + args[i]);
+                        return;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Error: " + args[i - 1] + " debe ser un numero");
+                return;
+            }
+        }
+        if (!esTamanoTablaValido(entradasTabla)) {
+            System.out.println(ERROR_TAMANO_TABLA);
+            return;
+        }
+
+        if (fichero == null || estrategia == null || !esEstrategiaSolve(estrategia) || hilos < 1
+                || (estrategia.equals("DLS") && profundidadMaxima == Busqueda.SIN_LIMITE)
+                || (!tipoFrontera.equals(Busqueda.FRONTERA_CUBETAS)
+                        && !tipoFrontera.equals(Busqueda.FRONTERA_MONTICULO))) {
+            System.out.println(uso);
+            return;
+        }
+        String heuristicaElegida = (nombreHeuristica == null) ? heuristicaPorDefecto(estrategia) : nombreHeuristica;
+        if (Heuristica.porNombre(heuristicaElegida) == null) {
+            System.out.println("Heuristica desconocida: " + heuristicaElegida);
+            return;
+        }
+
+        List<String> niveles = new ArrayList<>();
+        try {
+            for (String linea : Files.readAllLines(Paths.get(fichero), StandardCharsets.UTF_8)) {
+                if (!linea.trim().isEmpty()) {
+                    niveles.add(linea.trim());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error: No se pudo leer " + fichero + ": " + e.getMessage());
+            return;
+        }
+
+        CacheSoluciones cache = null;
+        if (ficheroCache != null) {
+            if (profundidadMaxima != Busqueda.SIN_LIMITE) {
+                System.err.println("La cache no se usa con --max-depth");
+            } else {
+                cache = abrirCache(ficheroCache);
+                if (cache == null) {
+                    return;
+                }
+            }
+        }
+
+        String estrategiaElegida = estrategia;
+        int profundidad = profundidadMaxima;
+        String frontera = tipoFrontera;
+        int tabla = entradasTabla;
+        CacheSoluciones cacheElegida = cache;
+        String configuracion = configuracionCache(estrategia, heuristicaElegida, 1, entradasTabla);
+        long inicio = System.nanoTime();
+        new ResolucionPorLotes(niveles, hilos, () -> {
+            Resolutor resolutor = crearResolutor(estrategiaElegida, Heuristica.porNombre(heuristicaElegida),
+                    profundidad, frontera, tabla, null, 1);
+            return (cacheElegida == null) ? resolutor : new ResolutorConCache(cacheElegida, configuracion, resolutor);
+        }, simetria).ejecutar(System.out);
+
+        System.err.println("Niveles: " + niveles.size());
+        System.err.println("Hilos: " + hilos);
+        System.err.println("Tiempo: " + ((System.nanoTime() - inicio) / 1_000_000) + " ms");
+    }
+
+    /**
+     * QUE: Crea el escritor de la traza de --trace: "-" es la salida
+     * estándar y cualquier otro valor un fichero que se sobrescribe.
+     * POR QUE: El fichero se escribe por su FileChannel sin pasar por
+     * System.out. Devuelve null tras imprimir el error.
+     */
+    private static SalidaBuffer abrirTraza(String fichero) {
+        if (fichero.equals("-")) {
+            return new SalidaBuffer(System.out);
+        }
+        try {
+            return new SalidaBuffer(FileChannel.open(Paths.get(fichero), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+        } catch (IOException e) {
+            System.out.println("Error: No se pudo crear la traza: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * QUE: Abre (o crea) la caché de soluciones de --cache.
+     * POR QUE: Devuelve null tras imprimir el error.
+     */
+    private static CacheSoluciones abrirCache(String fichero) {
+        try {
+            return CacheSoluciones.abrir(Paths.get(fichero));
+        } catch (IOException e) {
+            System.out.println("Error: No se pudo abrir la cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * QUE: Texto con las opciones que deciden el camino de una solución.
+     * POR QUE: Forma parte de la clave de la caché junto al nivel. La
+     * frontera no se incluye porque ambas dan el mismo orden; el tamaño de la
+     * tabla de IDA*, DLS e IDDFS y el A* paralelo sí pueden cambiar IDs o camino.
+     */
+    private static String configuracionCache(String estrategia, String heuristica, int hilos, int entradasTabla) {
+        String configuracion = estrategia + " " + heuristica;
+        if (estrategia.equals("IDA*") || BusquedaProfundidad.esEstrategiaValida(estrategia)) {
+            configuracion += " tt=" + entradasTabla;
+        }
+        if (hilos > 1 && !estrategia.equals("BFS")) {
+            configuracion += " paralelo";
+        }
+        return configuracion;
+    }
+
+    /**
+     * QUE: Abre la base de distancias de --db y comprueba que sea del nivel.
+     * POR QUE: Una base de otra disposición daría distancias sin sentido.
+     * Devuelve null tras imprimir el error.
+     */
+    private static BaseDistancias abrirBaseDistancias(String fichero, Tablero tablero) {
+        BaseDistancias base;
+        try {
+            base = BaseDistancias.abrir(Paths.get(fichero));
+        } catch (IOException e) {
+            System.out.println("Error: No se pudo abrir la base de datos: " + e.getMessage());
+            return null;
+        }
+        if (!base.getFirma().equals(tablero.getDisposicion().firma())) {
+            System.out.println("Error: La base de datos es de otra disposicion de vehiculos");
+            return null;
+        }
+        return base;
+    }
+
+    /**
+     * QUE: Abre la base de patrones de --pdb para la disposición del nivel.
+     * POR QUE: Devuelve null tras imprimir el error, también si es de otra
+     * disposición.
+     */
+    private static BasePatrones abrirBasePatrones(String fichero, Tablero tablero) {
+        try {
+            return BasePatrones.abrir(Paths.get(fichero), tablero.getDisposicion());
+        } catch (IOException e) {
+            System.out.println("Error: No se pudo abrir la base de patrones: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * QUE: Maneja el comando 'explore' que enumera la componente de un nivel
+     * y guarda la distancia a la meta de cada estado.
+     * POR QUE: El fichero resultante permite resolver con solve --db
+     * cualquier nivel de la componente sin buscar.
+     */
+    private static void handleExplore(String[] args) {
+        String uso = "Uso: java -jar rushhour.jar explore -s <nivel> [--out <fichero>]";
+        if (args.length < 3 || !args[1].equals("-s")) {
+            System.out.println(uso);
+            return;
+        }
+        String level = args[2];
+        String fichero = level + ".db";
+        for (int i = 3; i < args.length; i++) {
+            if (!args[i].equals("--out") || i + 1 >= args.length) {
+                System.out.println(uso);
+                return;
+            }
+            fichero = args[++i];
+        }
+
+        Nivel nivel = new Nivel(level);
+        int resultado = nivel.verify_level();
+        if (resultado != 0) {
+            System.out.println("Error: Nivel no valido (codigo: " + resultado + ")");
+            return;
+        }
+        Tablero tablero = Tablero.create_tablero(nivel);
+
+        long inicio = System.nanoTime();
+        EspacioEstados espacio = EspacioEstados.explorar(tablero.getDisposicion(), tablero.getEstado());
+        try {
+            BaseDistancias.escribir(espacio, Paths.get(fichero));
+        } catch (IOException e) {
+            System.out.println("Error: No se pudo escribir " + fichero + ": " + e.getMessage());
+            return;
+        }
+
+        System.out.println("Estados: " + espacio.getNumEstados());
+        System.out.println("Metas: " + espacio.getNumMetas());
+        System.out.println("Distancia maxima: " + espacio.getDistanciaMaxima());
+        System.out.println("Distancia del nivel: " + espacio.getDistancia(0));
+        System.out.println("Fichero: " + fichero);
+        System.err.println("Tiempo: " + ((System.nanoTime() - inicio) / 1_000_000) + " ms");
+    }
+
+    /**
+     * QUE: Maneja el comando 'pdb build' que calcula las bases de patrones de
+     * un nivel y las guarda en un fichero.
+     * POR QUE: Se construyen una vez; solve --pdb las mapea y A* e IDA* las
+     * consultan como heurística.
+     */
+    private static void handlePdb(String[] args) {
+        String uso = "Uso: java -jar rushhour.jar pdb build -s <nivel> [--out <fichero>]";
+        if (args.length < 4 || !args[1].equals("build") || !args[2].equals("-s")) {
+            System.out.println(uso);
+            return;
+        }
+        String level = args[3];
+        String fichero = level + ".pdb";
+        for (int i = 4; i < args.length; i++) {
+            if (!args[i].equals("--out") || i + 1 >= args.length) {
+                System.out.println(uso);
+                return;
+            }
+            fichero = args[++i];
+        }
+
+        Nivel nivel = new Nivel(level);
+        int resultado = nivel.verify_level();
+        if (resultado != 0) {
+            System.out.println("Error: Nivel no valido (codigo: " + resultado + ")");
+            return;
+        }
+        Tablero tablero = Tablero.create_tablero(nivel);
+        Disposicion disposicion = tablero.getDisposicion();
+
+        long inicio = System.nanoTime();
+        BasePatrones patrones = BasePatrones.construir(disposicion, tablero.getEstado());
+        try {
+            patrones.escribir(Paths.get(fichero));
+        } catch (IOException e) {
+            System.out.println("Error: No se pudo escribir " + fichero + ": " + e.getMessage());
+            return;
+        }
+
+        System.out.println("Patrones: " + patrones.getNumPatrones());
+        for (int p = 0; p < patrones.getNumPatrones(); p++) {
+            System.out.println("Patron " + (p + 1) + ": " + patrones.getVehiculos(p, disposicion)
+                    + " (" + patrones.getEntradas(p) + " entradas)");
+        }
+        System.out.println("Heuristica del nivel: " + patrones.evaluar(disposicion, tablero.getEstado()));
+        System.out.println("Fichero: " + fichero);
+        System.err.println("Tiempo: " + ((System.nanoTime() - inicio) / 1_000_000) + " ms");
+    }
+
+    /**
+     * QUE: Maneja el comando 'serve' que atiende comandos en una JVM
+     * caliente.
+     * POR QUE: Con --port escucha por TCP; con --stdio lee las peticiones de
+     * la entrada estándar. Antes de atender ejecuta --warmup iteraciones de
+     * calentamiento.
+     */
+    private static void handleServe(String[] args) {
+        String uso = "Uso: java -jar rushhour.jar serve <--port N | --stdio> [--warmup N]";
+        int puerto = -1;
+        boolean entradaEstandar = false;
+        int calentamiento = Servidor.CALENTAMIENTO_POR_DEFECTO;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--stdio")) {
+                    entradaEstandar = true;
+                } else if (args[i].equals("--port") && i + 1 < args.length) {
+                    puerto = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--warmup") && i + 1 < args.length) {
+                    calentamiento = Integer.parseInt(args[++i]);
+                } else {
+                    System.out.println(uso);
+                    return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println(uso);
+            return;
+        }
+        if (entradaEstandar == (puerto >= 0) || puerto > 65535 || calentamiento < 0) {
+            System.out.println(uso);
+            return;
+        }
+
+        Servidor servidor = new Servidor();
+        long inicio = System.nanoTime();
+        servidor.calentar(calentamiento);
+        System.err.println("Calentamiento: " + ((System.nanoTime() - inicio) / 1_000_000) + " ms");
+        try {
+            if (entradaEstandar) {
+                servidor.servirEntradaEstandar();
+            } else {
+                servidor.servirPuerto(puerto);
+            }
+        } catch (IOException e) {
+            System.err.println("Error del servidor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * QUE: Valida el nivel dado con --goal y lo convierte en tablero.
+     * POR QUE: Solo sirve como meta si tiene los mismos vehículos en los
+     * mismos carriles que el inicial y el coche rojo está en la salida.
+     * Devuelve null tras imprimir el error.
+     */
+    private static Tablero crearTableroMeta(String nivelMeta, Disposicion inicial) {
+        Nivel nivel = new Nivel(nivelMeta);
+        int resultado = nivel.verify_level();
+        if (resultado != 0) {
+            System.out.println("Error: Meta no valida (codigo: " + resultado + ")");
+            return null;
+        }
+        Tablero meta = Tablero.create_tablero(nivel);
+        if (meta == null || !meta.getDisposicion().esCompatible(inicial) || !meta.isGoal()) {
+            System.out.println("Error: La meta no corresponde al nivel");
+            return null;
+        }
+        return meta;
     }
 
     /**
@@ -95,13 +804,15 @@ public class Rushhour {
             System.out.println("Opciones T2:");
             System.out.println("  --goal                : Devuelve TRUE/FALSE si es estado objetivo");
             System.out.println("  --move <accion1,...>  : Devuelve el estado tras aplicar acciones");
+            System.out.println("Opciones T3:");
+            System.out.println("  --heuristic <nombre>  : Devuelve h del estado (0, blocking, recursive)");
             return;
         }
 
         String level = args[2];
         Nivel nivel = new Nivel(level);
 
-        int resultado = Nivel.verify_level(Nivel.getArrayLevel());
+        int resultado = nivel.verify_level();
         if (resultado != 0) {
             System.out.println("Error: Nivel no valido (codigo: " + resultado + ")");
             return;
@@ -170,6 +881,19 @@ public class Rushhour {
                 System.out.println(estadoActual.levelToString());
                 break;
 
+            case "--heuristic":
+                if (args.length < 5) {
+                    System.out.println("Error: Falta el parametro <nombre>");
+                    return;
+                }
+                Heuristica heuristica = Heuristica.porNombre(args[4]);
+                if (heuristica == null) {
+                    System.out.println("Heuristica desconocida: " + args[4]);
+                    return;
+                }
+                System.out.println(heuristica.evaluar(tablero.getDisposicion(), tablero.getEstado()));
+                break;
+
             default:
                 System.out.println("Opcion desconocida: " + option);
         }
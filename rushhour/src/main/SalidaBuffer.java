@@ -0,0 +1,220 @@
+package main;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * QUE: Escritor de líneas de sucesores y nodos directamente en un buffer de
+ * bytes reutilizable, volcado a un OutputStream o a un canal.
+ * POR QUE: Con println por línea, cada Sucesor.toString y Nodo.toString
+ * concatena Strings y decodifica el estado otra vez; en trazas de millones
+ * de líneas la salida domina el tiempo. Aquí los enteros se convierten a
+ * dígitos y las 36 casillas se escriben en el buffer sin objetos
+ * intermedios, y solo se escribe en el destino cuando el buffer se llena.
+ *
+ * Los bytes son idénticos a los de toString seguido de println: todo el
+ * texto es ASCII y el fin de línea es el del sistema. Con System.out como
+ * destino se respeta la redirección por hilo del servidor. Los errores de
+ * escritura se lanzan como UncheckedIOException porque la traza se escribe
+ * desde el bucle de búsqueda.
+ */
+public class SalidaBuffer {
+
+    private static final int TAMANO_BUFFER = 1 << 16;
+
+    // Cota holgada de la línea más larga (ocho enteros, acción y estado).
+    private static final int LINEA_MAXIMA = 256;
+
+    private static final byte[] FIN_LINEA = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NINGUNA = "none".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream flujo;
+    private final WritableByteChannel canal;
+    private final byte[] buffer;
+    private final ByteBuffer envoltorio;
+    private int posicion;
+    private FormaCanonica forma;
+
+    /**
+     * QUE: Escritor sobre un OutputStream (normalmente System.out).
+     */
+    public SalidaBuffer(OutputStream flujo) {
+        this(flujo, null);
+    }
+
+    /**
+     * QUE: Escritor sobre un canal (normalmente el FileChannel de una traza).
+     */
+    public SalidaBuffer(WritableByteChannel canal) {
+        this(null, canal);
+    }
+
+    private SalidaBuffer(OutputStream flujo, WritableByteChannel canal) {
+        this.flujo = flujo;
+        this.canal = canal;
+        this.buffer = new byte[TAMANO_BUFFER];
+        this.envoltorio = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * QUE: Escribe las letras de los vehículos con las del nivel real.
+     * POR QUE: Con --symmetry la búsqueda trabaja sobre la forma canónica.
+     */
+    public void setFormaCanonica(FormaCanonica forma) {
+        this.forma = forma;
+    }
+
+    /**
+     * QUE: Escribe una línea [accion,estado,costo], como Sucesor.toString.
+     */
+    public void sucesor(Disposicion disposicion, int accion, long estado, int costo) {
+        reservarLinea();
+        caracter('[');
+        accion(disposicion, accion);
+        caracter(',');
+        estado(disposicion, estado);
+        caracter(',');
+        entero(costo);
+        caracter(']');
+        finLinea();
+    }
+
+    /**
+     * QUE: Escribe una línea [ID,padre,accion,estado,costo,profundidad,h,valor],
+     * como Nodo.toString.
+     * POR QUE: Un padre negativo se escribe como "none", igual que el de la
+     * raíz.
+     */
+    public void nodo(int id, int padre, Disposicion disposicion, int accion, long estado, int costo,
+            int profundidad, int heuristica, int valor) {
+        reservarLinea();
+        caracter('[');
+        entero(id);
+        caracter(',');
+        if (padre < 0) {
+            bytes(NINGUNA);
+        } else {
+            entero(padre);
+        }
+        caracter(',');
+        accion(disposicion, accion);
+        caracter(',');
+        estado(disposicion, estado);
+        caracter(',');
+        entero(costo);
+        caracter(',');
+        entero(profundidad);
+        caracter(',');
+        entero(heuristica);
+        caracter(',');
+        entero(valor);
+        caracter(']');
+        finLinea();
+    }
+
+    /**
+     * QUE: Escribe en el destino lo que haya en el buffer.
+     */
+    public void vaciar() {
+        try {
+            if (canal != null) {
+                envoltorio.clear().limit(posicion);
+                while (envoltorio.hasRemaining()) {
+                    canal.write(envoltorio);
+                }
+            } else {
+                flujo.write(buffer, 0, posicion);
+                flujo.flush();
+            }
+            posicion = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * QUE: Vacía el buffer y cierra el canal, si lo hay.
+     * POR QUE: Un OutputStream como System.out no es de este escritor y no se
+     * cierra.
+     */
+    public void cerrar() {
+        vaciar();
+        if (canal != null) {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void reservarLinea() {
+        if (posicion + LINEA_MAXIMA > buffer.length) {
+            vaciar();
+        }
+    }
+
+    private void caracter(char c) {
+        buffer[posicion++] = (byte) c;
+    }
+
+    private void bytes(byte[] texto) {
+        System.arraycopy(texto, 0, buffer, posicion, texto.length);
+        posicion += texto.length;
+    }
+
+    private void finLinea() {
+        bytes(FIN_LINEA);
+    }
+
+    /**
+     * QUE: Escribe un entero en decimal sin crear un String.
+     * POR QUE: Se pasa a long para que Integer.MIN_VALUE también se pueda
+     * negar.
+     */
+    private void entero(int valor) {
+        long n = valor;
+        if (n < 0) {
+            caracter('-');
+            n = -n;
+        }
+        int inicio = posicion;
+        do {
+            buffer[posicion++] = (byte) ('0' + n % 10);
+            n /= 10;
+        } while (n > 0);
+        for (int i = inicio, j = posicion - 1; i < j; i++, j--) {
+            byte b = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = b;
+        }
+    }
+
+    private void accion(Disposicion disposicion, int accion) {
+        if (accion == Accion.NINGUNA) {
+            bytes(NINGUNA);
+            return;
+        }
+        caracter(letra(disposicion.getID(Accion.vehiculo(accion))));
+        caracter(Accion.esPositiva(accion) ? '+' : '-');
+        entero(Accion.distancia(accion));
+    }
+
+    private void estado(Disposicion disposicion, long estado) {
+        disposicion.escribirCasillas(estado, buffer, posicion);
+        if (forma != null) {
+            for (int i = posicion; i < posicion + 36; i++) {
+                buffer[i] = (byte) letra((char) buffer[i]);
+            }
+        }
+        posicion += 36;
+    }
+
+    private char letra(char c) {
+        return (forma == null) ? c : forma.aReal(c);
+    }
+}
@@ -0,0 +1,128 @@
+package main;
+
+import java.io.PrintStream;
+
+/**
+ * QUE: PrintStream que escribe en un destino distinto para cada hilo.
+ * POR QUE: Los comandos imprimen con System.out y System.err. El servidor
+ * instala una de estas como System.out (y otra como System.err) y cada
+ * petición redirige su hilo a su propio buffer, así varias peticiones a la
+ * vez producen exactamente la salida del comando sin mezclarse. Los hilos
+ * sin destino escriben en el stream original.
+ *
+ * Los métodos que usan los comandos se reenvían sin pasar por el cerrojo de
+ * PrintStream; el resto llega a write(byte[], int, int), que también se
+ * reenvía.
+ */
+public class SalidaPorHilo extends PrintStream {
+
+    private final PrintStream original;
+    private final ThreadLocal<PrintStream> destino = new ThreadLocal<>();
+
+    public SalidaPorHilo(PrintStream original) {
+        super(original, true);
+        this.original = original;
+    }
+
+    /**
+     * QUE: Hace que el hilo actual escriba en 'flujo' hasta restaurar.
+     */
+    public void redirigir(PrintStream flujo) {
+        destino.set(flujo);
+    }
+
+    public void restaurar() {
+        destino.remove();
+    }
+
+    public PrintStream getOriginal() {
+        return original;
+    }
+
+    private PrintStream destino() {
+        PrintStream flujo = destino.get();
+        return (flujo != null) ? flujo : original;
+    }
+
+    @Override
+    public void write(int b) {
+        destino().write(b);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        destino().write(buf, off, len);
+    }
+
+    @Override
+    public void flush() {
+        destino().flush();
+    }
+
+    @Override
+    public void print(String s) {
+        destino().print(s);
+    }
+
+    @Override
+    public void print(Object obj) {
+        destino().print(obj);
+    }
+
+    @Override
+    public void print(int i) {
+        destino().print(i);
+    }
+
+    @Override
+    public void print(long l) {
+        destino().print(l);
+    }
+
+    @Override
+    public void print(char c) {
+        destino().print(c);
+    }
+
+    @Override
+    public void println() {
+        destino().println();
+    }
+
+    @Override
+    public void println(String x) {
+        destino().println(x);
+    }
+
+    @Override
+    public void println(Object x) {
+        destino().println(x);
+    }
+
+    @Override
+    public void println(int x) {
+        destino().println(x);
+    }
+
+    @Override
+    public void println(long x) {
+        destino().println(x);
+    }
+
+    @Override
+    public void println(char x) {
+        destino().println(x);
+    }
+
+    @Override
+    public PrintStream printf(String format, Object... args) {
+        destino().printf(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(String format, Object... args) {
+        destino().format(format, args);
+        return this;
+    }
+}
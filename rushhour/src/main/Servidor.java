@@ -0,0 +1,201 @@
+package main;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * QUE: Servidor que mantiene la JVM caliente y ejecuta los comandos de
+ * Rushhour.main recibidos por TCP o por la entrada estándar.
+ * POR QUE: Cada llamada a verify, question o successors arrancaba una JVM
+ * nueva y pagaba la carga de clases y el código interpretado. Aquí la
+ * generación de movimientos ya está compilada por el JIT cuando llega la
+ * primera petición.
+ *
+ * Protocolo de líneas: cada petición es una línea con los argumentos del
+ * comando separados por espacios (ej. "question -s <nivel> --goal"). La
+ * respuesta es exactamente lo que el comando escribe en stdout seguido de
+ * una línea FIN. Lo que escribe en stderr va al stderr del servidor, en
+ * bloque al terminar la petición. Una conexión puede enviar varias
+ * peticiones seguidas; se responden en orden.
+ */
+public class Servidor {
+
+    /** Línea que cierra cada respuesta. */
+    public static final String FIN = "FIN";
+
+    /** Iteraciones de calentamiento por defecto. */
+    public static final int CALENTAMIENTO_POR_DEFECTO = 2000;
+
+    // Niveles fácil, medio y difícil con un movimiento legal de cada uno.
+    private static final String[][] NIVELES_CALENTAMIENTO = {
+        {"ooooBoooooBoAAooCoooooCoooooooooDDDo", "A+1"},
+        {"BBJoooHoJDDMHAAooMHoKEEMIoKLFFIGGLoo", "A+2"},
+        {"GBBoLoGHIoLMGHIAAMCCCKoMooJKDDEEJFFo", "F+1"},
+    };
+
+    private final SalidaPorHilo salida;
+    private final SalidaPorHilo errores;
+    private final Charset juegoCaracteres = Charset.defaultCharset();
+
+    /**
+     * QUE: Instala la salida por hilo como System.out y System.err.
+     * POR QUE: Los comandos no cambian: siguen imprimiendo con System.out.
+     */
+    public Servidor() {
+        this.salida = new SalidaPorHilo(System.out);
+        this.errores = new SalidaPorHilo(System.err);
+        System.setOut(salida);
+        System.setErr(errores);
+    }
+
+    /**
+     * QUE: Ejecuta los comandos habituales sobre los niveles de calentamiento
+     * descartando su salida.
+     * POR QUE: Las consultas se repiten 'iteraciones' veces hasta que el JIT
+     * compila sus métodos calientes; las búsquedas, más caras, una vez de
+     * cada 50.
+     */
+    public void calentar(int iteraciones) {
+        PrintStream nula = new PrintStream(OutputStream.nullOutputStream());
+        salida.redirigir(nula);
+        errores.redirigir(nula);
+        try {
+            for (int i = 0; i < iteraciones; i++) {
+                for (String[] nivel : NIVELES_CALENTAMIENTO) {
+                    Rushhour.ejecutar(new String[] {"verify", "-s", nivel[0]});
+                    Rushhour.ejecutar(new String[] {"successors", "-s", nivel[0]});
+                    Rushhour.ejecutar(new String[] {"question", "-s", nivel[0], "--goal"});
+                    Rushhour.ejecutar(new String[] {"question", "-s", nivel[0], "--move", nivel[1]});
+                    Rushhour.ejecutar(new String[] {"question", "-s", nivel[0], "--whereis", "A"});
+                    if (i % 50 == 0) {
+                        Rushhour.ejecutar(new String[] {"solve", "-s", nivel[0], "--strategy", "BFS"});
+                        Rushhour.ejecutar(new String[] {"solve", "-s", nivel[0], "--strategy", "A*"});
+                    }
+                }
+            }
+        } finally {
+            salida.restaurar();
+            errores.restaurar();
+        }
+    }
+
+    /**
+     * QUE: Ejecuta una línea de petición y devuelve la respuesta completa.
+     * POR QUE: stdout y stderr del comando se capturan solo para este hilo.
+     * Una excepción del comando no tumba el servidor: se informa en stderr
+     * como lo haría la JVM y la respuesta termina igualmente con FIN.
+     */
+    public byte[] atender(String linea) {
+        String recortada = linea.trim();
+        String[] args = recortada.isEmpty() ? new String[0] : recortada.split("\\s+");
+
+        ByteArrayOutputStream bufferSalida = new ByteArrayOutputStream();
+        ByteArrayOutputStream bufferErrores = new ByteArrayOutputStream();
+        PrintStream flujoSalida = new PrintStream(bufferSalida, false, juegoCaracteres);
+        PrintStream flujoErrores = new PrintStream(bufferErrores, false, juegoCaracteres);
+        salida.redirigir(flujoSalida);
+        errores.redirigir(flujoErrores);
+        try {
+            if (args.length > 0 && args[0].equals("serve")) {
+                System.out.println("Comando no disponible dentro del servidor: serve");
+            } else if (args.length > 0) {
+                Rushhour.ejecutar(args);
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace(flujoErrores);
+        } finally {
+            salida.restaurar();
+            errores.restaurar();
+        }
+
+        flujoSalida.println(FIN);
+        flujoSalida.flush();
+        flujoErrores.flush();
+        if (bufferErrores.size() > 0) {
+            PrintStream original = errores.getOriginal();
+            synchronized (original) {
+                original.write(bufferErrores.toByteArray(), 0, bufferErrores.size());
+                original.flush();
+            }
+        }
+        return bufferSalida.toByteArray();
+    }
+
+    /**
+     * QUE: Atiende peticiones de la entrada estándar hasta que se cierra.
+     * POR QUE: Variante sin red para lanzar el servidor como proceso hijo;
+     * las peticiones se atienden una a una, en orden.
+     */
+    public void servirEntradaEstandar() throws IOException {
+        PrintStream original = salida.getOriginal();
+        BufferedReader entrada = new BufferedReader(new InputStreamReader(System.in, juegoCaracteres));
+        String linea;
+        while ((linea = entrada.readLine()) != null) {
+            byte[] respuesta = atender(linea);
+            original.write(respuesta, 0, respuesta.length);
+            original.flush();
+        }
+    }
+
+    /**
+     * QUE: Acepta conexiones TCP en un puerto y atiende cada una en su propio
+     * hilo.
+     * POR QUE: Con hilos virtuales una conexión bloqueada en lectura no
+     * ocupa un hilo del sistema.
+     */
+    public void servirPuerto(int puerto) throws IOException {
+        ExecutorService ejecutor = crearEjecutor();
+        try (ServerSocket servidor = new ServerSocket(puerto)) {
+            errores.getOriginal().println("Servidor escuchando en el puerto " + servidor.getLocalPort());
+            while (true) {
+                Socket conexion = servidor.accept();
+                ejecutor.execute(() -> atenderConexion(conexion));
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private void atenderConexion(Socket conexion) {
+        try (Socket socket = conexion;
+                BufferedReader entrada = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), juegoCaracteres));
+                OutputStream respuesta = socket.getOutputStream()) {
+            socket.setTcpNoDelay(true);
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                respuesta.write(atender(linea));
+                respuesta.flush();
+            }
+        } catch (IOException e) {
+            // Conexión cerrada por el cliente: no hay a quién responder.
+        }
+    }
+
+    /**
+     * QUE: Ejecutor de un hilo virtual por conexión, o de hilos de plataforma
+     * si la JVM no tiene hilos virtuales.
+     * POR QUE: El proyecto compila con Java 17; el método de Java 21 se busca
+     * por reflexión.
+     */
+    private static ExecutorService crearEjecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(tarea -> {
+                Thread hilo = new Thread(tarea, "servidor");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+}
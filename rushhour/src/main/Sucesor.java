@@ -7,21 +7,48 @@ package main;
  */
 public class Sucesor {
 
-    private String accion;
-    private Tablero nuevoEstado;
+    private Disposicion disposicion;
+    private int accion;
+    private long nuevoEstado;
     private int costo;
 
-    public Sucesor(String accion, Tablero nuevoEstado, int costo) {
+    public Sucesor(Disposicion disposicion, int accion, long nuevoEstado, int costo) {
+        this.disposicion = disposicion;
         this.accion = accion;
         this.nuevoEstado = nuevoEstado;
         this.costo = costo;
     }
 
+    /**
+     * QUE: Devuelve la acción en texto (ej. "A+1").
+     * POR QUE: El String solo se construye cuando alguien lo pide.
+     */
     public String getAction() {
+        return Accion.aTexto(disposicion, accion);
+    }
+
+    /**
+     * QUE: Devuelve la acción codificada.
+     * POR QUE: Es lo que guardan los nodos de la búsqueda.
+     */
+    public int getAccionCodificada() {
         return accion;
     }
 
+    /**
+     * QUE: Devuelve el nuevo estado como objeto Tablero.
+     * POR QUE: Compatibilidad con el código que consulta el tablero; construirlo
+     * solo copia la disposición y el long.
+     */
     public Tablero getNewState() {
+        return new Tablero(disposicion, nuevoEstado);
+    }
+
+    /**
+     * QUE: Devuelve el nuevo estado codificado.
+     * POR QUE: La búsqueda trabaja directamente sobre el long.
+     */
+    public long getEstado() {
         return nuevoEstado;
     }
 
@@ -35,6 +62,6 @@ public class Sucesor {
      */
     @Override
     public String toString() {
-        return "[" + this.accion + "," + this.nuevoEstado.levelToString() + "," + this.costo + "]";
+        return "[" + getAction() + "," + this.disposicion.decodificar(this.nuevoEstado) + "," + this.costo + "]";
     }
 }
\ No newline at end of file
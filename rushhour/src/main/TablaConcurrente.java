@@ -0,0 +1,119 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * QUE: Tabla de estados con direccionamiento abierto en la que varios hilos
+ * insertan a la vez con compareAndSet; cada estado guarda el menor ID de
+ * nodo con el que se ha insertado.
+ * POR QUE: La anchura paralela deduplica una capa entera en paralelo y
+ * necesita que el "ganador" de cada estado no dependa del orden en que
+ * corren los hilos: quedarse con el ID mínimo da el mismo resultado que la
+ * anchura secuencial, que expande primero el nodo de menor ID.
+ *
+ * Las inserciones concurrentes no redimensionan; la capacidad se reserva
+ * desde un único hilo entre fases con asegurarCapacidad.
+ */
+public class TablaConcurrente {
+
+    /** Valor devuelto por obtener cuando el estado no está en la tabla. */
+    public static final int NO_ENCONTRADO = Integer.MAX_VALUE;
+
+    /** Los estados usan como mucho 54 bits, así que -1 nunca es un estado. */
+    private static final long VACIO = -1L;
+
+    private static final double CARGA_MAXIMA = 0.5;
+
+    private AtomicLongArray claves;
+    private AtomicIntegerArray ids;
+    private int mascara;
+    private int reservados;
+
+    /**
+     * QUE: Crea una tabla con capacidad para al menos 'capacidad' estados.
+     * POR QUE: La carga máxima es baja porque no se redimensiona durante las
+     * inserciones y el sondeo lineal debe seguir siendo corto.
+     */
+    public TablaConcurrente(int capacidad) {
+        crearArrays(huecosPara(capacidad));
+    }
+
+    private static int huecosPara(int capacidad) {
+        return Integer.highestOneBit(Math.max(16, (int) (capacidad / CARGA_MAXIMA)) - 1) << 1;
+    }
+
+    private void crearArrays(int huecos) {
+        claves = new AtomicLongArray(huecos);
+        ids = new AtomicIntegerArray(huecos);
+        for (int i = 0; i < huecos; i++) {
+            claves.set(i, VACIO);
+            ids.set(i, NO_ENCONTRADO);
+        }
+        mascara = huecos - 1;
+    }
+
+    /**
+     * QUE: Garantiza sitio para 'nuevos' estados más sin superar la carga.
+     * POR QUE: Solo debe llamarse sin inserciones en curso; si hace falta
+     * duplica la tabla y reinserta desde este hilo.
+     */
+    public void asegurarCapacidad(int nuevos) {
+        reservados += nuevos;
+        if (reservados <= (int) ((mascara + 1) * CARGA_MAXIMA)) {
+            return;
+        }
+        AtomicLongArray viejasClaves = claves;
+        AtomicIntegerArray viejosIds = ids;
+        crearArrays(huecosPara(reservados));
+        for (int j = 0; j < viejasClaves.length(); j++) {
+            long estado = viejasClaves.get(j);
+            if (estado != VACIO) {
+                insertarMinimo(estado, viejosIds.get(j));
+            }
+        }
+    }
+
+    /**
+     * QUE: Inserta un estado con un ID o rebaja su ID si el dado es menor.
+     * POR QUE: El hueco se reclama con CAS sobre la clave y el ID se rebaja con
+     * CAS en bucle, así que el resultado final es el mínimo sea cual sea el
+     * orden de los hilos.
+     */
+    public void insertarMinimo(long estado, int id) {
+        int i = (int) ConjuntoCerrado.mezclar(estado) & mascara;
+        while (true) {
+            long clave = claves.get(i);
+            if (clave == VACIO) {
+                if (claves.compareAndSet(i, VACIO, estado)) {
+                    break;
+                }
+                clave = claves.get(i);
+            }
+            if (clave == estado) {
+                break;
+            }
+            i = (i + 1) & mascara;
+        }
+        int actual = ids.get(i);
+        while (id < actual && !ids.compareAndSet(i, actual, id)) {
+            actual = ids.get(i);
+        }
+    }
+
+    /**
+     * QUE: Devuelve el menor ID guardado para un estado o NO_ENCONTRADO.
+     * POR QUE: Solo es fiable cuando no hay inserciones en curso.
+     */
+    public int obtener(long estado) {
+        int i = (int) ConjuntoCerrado.mezclar(estado) & mascara;
+        long clave;
+        while ((clave = claves.get(i)) != VACIO) {
+            if (clave == estado) {
+                return ids.get(i);
+            }
+            i = (i + 1) & mascara;
+        }
+        return NO_ENCONTRADO;
+    }
+}
@@ -0,0 +1,166 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * QUE: Tabla de transposición de tamaño fijo que recuerda, para cada estado,
+ * el menor g con el que se ha expandido y en qué iteración.
+ * POR QUE: IDA* y la profundización iterativa vuelven a llegar a los mismos
+ * estados por caminos distintos. Si en esta iteración ya se exploró con un g
+ * menor o igual, el subárbol no puede dar nada nuevo. Si en cualquier
+ * iteración anterior se alcanzó con un g estrictamente menor, este camino
+ * tampoco: el más barato cabe igual en el umbral actual y se recorre en esta
+ * iteración. Sin esa segunda poda, los caminos caros a estados conocidos
+ * siguen subiendo el umbral y en un nivel sin solución las iteraciones no
+ * se acaban.
+ *
+ * Para que esa garantía no dependa de la suerte, ninguna entrada se pierde:
+ * las colisiones se resuelven con sondeo lineal, como en ConjuntoCerrado, en
+ * lugar de sobrescribir. La memoria sigue siendo fija; cuando se ocupan 3/4
+ * de los huecos los estados nuevos ya no se guardan y la tabla queda llena.
+ * Desde ese momento quien la usa debe parar cuando una iteración no añade ni
+ * abarata ninguna entrada (ver getCambios).
+ */
+public class TablaTransposicion {
+
+    /**
+     * Máximo de entradas que se pueden pedir: por encima, redondear a la
+     * siguiente potencia de 2 desborda el int.
+     */
+    public static final int MAX_ENTRADAS = 1 << 30;
+
+    private final long[] claves;
+    private final int[] costes;
+    private final int[] iteraciones;
+    private final int mascara;
+    private final int maxOcupados;
+    private int ocupados;
+    private boolean llena;
+    private long cambios;
+
+    /**
+     * QUE: Crea una tabla con al menos 'entradas' huecos (potencia de 2).
+     * POR QUE: 16 bytes por hueco; el tamaño lo elige el usuario y debe
+     * estar entre 1 y MAX_ENTRADAS. Caben 3/4 de los huecos en estados, para
+     * que el sondeo siga siendo corto.
+     */
+    public TablaTransposicion(int entradas) {
+        if (entradas > MAX_ENTRADAS) {
+            throw new IllegalArgumentException("Tabla de transposicion demasiado grande: " + entradas);
+        }
+        int huecos = Integer.highestOneBit(Math.max(2, entradas) - 1) << 1;
+        this.claves = new long[huecos];
+        this.costes = new int[huecos];
+        this.iteraciones = new int[huecos];
+        this.mascara = huecos - 1;
+        this.maxOcupados = huecos - huecos / 4;
+        Arrays.fill(this.iteraciones, -1);
+    }
+
+    /**
+     * QUE: Registra una visita a un estado con coste g en una iteración.
+     * POR QUE: Devuelve false si la visita está dominada (hay que podar); en
+     * otro caso la guarda, salvo que sea un estado nuevo y la tabla esté
+     * llena.
+     */
+    public boolean registrar(long estado, int g, int iteracion) {
+        return registrar(estado, ConjuntoCerrado.mezclar(estado), g, iteracion);
+    }
+
+    /**
+     * QUE: Igual que registrar, con el hash del estado ya calculado.
+     * POR QUE: IDA* mantiene el hash Zobrist de forma incremental en su
+     * TableroMutable. El hash solo elige el hueco; la clave guardada es el
+     * estado completo, así que una colisión nunca poda por error. Una misma
+     * tabla debe usarse siempre con el mismo tipo de hash.
+     */
+    public boolean registrar(long estado, long hash, int g, int iteracion) {
+        int i = buscarHueco(estado, hash);
+        if (dominado(i, estado, g, iteracion)) {
+            return false;
+        }
+        if (iteraciones[i] < 0) {
+            if (ocupados == maxOcupados) {
+                llena = true;
+                return true;
+            }
+            ocupados++;
+            claves[i] = estado;
+            cambios++;
+        } else if (g < costes[i]) {
+            cambios++;
+        }
+        costes[i] = g;
+        iteraciones[i] = iteracion;
+        return true;
+    }
+
+    /**
+     * QUE: Comprueba, sin registrar nada, si una visita está dominada: el
+     * estado se expandió con un g menor en alguna iteración o con el mismo g
+     * en esta.
+     * POR QUE: IDA* y DLS descartan así los repetidos antes de mirar su f o
+     * el límite, para que no cuenten para la siguiente iteración; solo se
+     * registran los que llegan a expandirse.
+     */
+    public boolean dominado(long estado, long hash, int g, int iteracion) {
+        return dominado(buscarHueco(estado, hash), estado, g, iteracion);
+    }
+
+    /**
+     * QUE: Hueco del estado: el que lo contiene o el primer hueco vacío de su
+     * secuencia de sondeo.
+     * POR QUE: Nunca se ocupan todos los huecos, así que el sondeo termina.
+     */
+    private int buscarHueco(long estado, long hash) {
+        int i = (int) hash & mascara;
+        while (iteraciones[i] >= 0 && claves[i] != estado) {
+            i = (i + 1) & mascara;
+        }
+        return i;
+    }
+
+    private boolean dominado(int i, long estado, int g, int iteracion) {
+        return iteraciones[i] >= 0 && claves[i] == estado
+                && (costes[i] < g || (costes[i] == g && iteraciones[i] == iteracion));
+    }
+
+    /**
+     * QUE: Olvida todas las entradas.
+     * POR QUE: Los números de iteración vuelven a empezar en cada búsqueda;
+     * sin limpiar, una entrada de otro nivel podría podar por error.
+     */
+    public void limpiar() {
+        Arrays.fill(iteraciones, -1);
+        ocupados = 0;
+        llena = false;
+        cambios = 0;
+    }
+
+    /**
+     * QUE: Número de estados nuevos guardados más el de g rebajados desde el
+     * último limpiar.
+     * POR QUE: Mientras la tabla no está llena, la poda entre iteraciones
+     * basta para que la búsqueda termine. Con la tabla llena ya no: los
+     * estados que no caben se pueden volver a alcanzar por caminos cada vez
+     * más largos. Entonces se para cuando una iteración no aumenta este
+     * número; como la tabla no admite más estados y cada g solo puede bajar
+     * un número finito de veces, eso siempre acaba ocurriendo. El precio es
+     * que se puede dar por imposible un nivel cuya solución necesita más
+     * estados de los que caben.
+     */
+    public long getCambios() {
+        return cambios;
+    }
+
+    /**
+     * QUE: Indica si algún estado nuevo no se pudo guardar por falta de sitio.
+     */
+    public boolean isLlena() {
+        return llena;
+    }
+
+    public int capacidad() {
+        return claves.length;
+    }
+}
@@ -1,36 +1,106 @@
 package main;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 
 public class Tablero {
+    private final Disposicion disposicion;
+    private final long estado;
+    private final long hash;
     private char[][] casillas;
     private ArrayList<Vehiculo> vehiculos;
+    private long ocupacion;
+    private long ocupacionTraspuesta;
+    private boolean ocupacionCalculada;
 
     /**
      * QUE: Construye un Tablero a partir de su matriz de casillas.
      * POR QUE: Es la representación principal del estado del juego.
      */
     public Tablero(char[][] casillas) {
+        this.disposicion = Disposicion.desdeCasillas(casillas);
+        this.estado = this.disposicion.codificar(casillas);
+        this.hash = Disposicion.hashZobrist(estado);
         this.casillas = casillas;
-        this.vehiculos = new ArrayList<>(); // Inicializa la lista
     }
 
-    public char[][] getCasillas() {
-        return casillas;
+    /**
+     * QUE: Construye un Tablero a partir de una disposición y un estado
+     * codificado.
+     * POR QUE: Los sucesores comparten la disposición del nivel y solo difieren
+     * en el long del estado, así que crearlos es O(1).
+     */
+    public Tablero(Disposicion disposicion, long estado) {
+        this(disposicion, estado, Disposicion.hashZobrist(estado));
     }
 
-    public void setCasillas(char[][] casillas) {
-        this.casillas = casillas;
+    /**
+     * QUE: Construye un Tablero cuyo hash ya se conoce.
+     * POR QUE: applyMove lo actualiza en O(1) a partir del hash del padre.
+     */
+    private Tablero(Disposicion disposicion, long estado, long hash) {
+        this.disposicion = disposicion;
+        this.estado = estado;
+        this.hash = hash;
     }
 
+    /**
+     * QUE: Devuelve la matriz de casillas, reconstruyéndola si hace falta.
+     * POR QUE: Solo las consultas casilla a casilla la necesitan, así que no se
+     * materializa para cada sucesor.
+     */
+    public char[][] getCasillas() {
+        if (casillas == null) {
+            casillas = disposicion.aCasillas(estado);
+        }
+        return casillas;
+    }
+
+    /**
+     * QUE: Devuelve la lista de vehículos (ordenada por ID) del estado actual.
+     * POR QUE: Se construye bajo demanda a partir de la disposición.
+     */
     public ArrayList<Vehiculo> getVehiculos() {
+        if (vehiculos == null) {
+            vehiculos = new ArrayList<>(disposicion.numVehiculos());
+            for (int v = 0; v < disposicion.numVehiculos(); v++) {
+                vehiculos.add(crearVehiculo(v));
+            }
+        }
         return vehiculos;
     }
 
-    public void setVehiculos(ArrayList<Vehiculo> vehiculos) {
-        this.vehiculos = vehiculos;
+    /**
+     * QUE: Calcula una sola vez los bitboards de ocupación del tablero.
+     * POR QUE: Los comparten todas las comprobaciones de movimiento del mismo
+     * estado.
+     */
+    private void calcularOcupacion() {
+        if (!ocupacionCalculada) {
+            ocupacion = disposicion.ocupacion(estado);
+            ocupacionTraspuesta = disposicion.ocupacionTraspuesta(estado);
+            ocupacionCalculada = true;
+        }
+    }
+
+    public Disposicion getDisposicion() {
+        return disposicion;
+    }
+
+    /**
+     * QUE: Obtiene el estado codificado del tablero.
+     * POR QUE: Es la clave compacta que usan la búsqueda y los sucesores.
+     */
+    public long getEstado() {
+        return estado;
+    }
+
+    /**
+     * QUE: Devuelve el hash Zobrist del estado.
+     * POR QUE: La búsqueda lo usa como clave de la lista cerrada desde la
+     * raíz y lo actualiza movimiento a movimiento.
+     */
+    public long getHash() {
+        return hash;
     }
 
     /**
@@ -39,12 +109,11 @@ public class Tablero {
      * concreto desde la lista de vehículos del tablero.
      */
     private Vehiculo getVehiculoById(char id) {
-        for (Vehiculo v : this.vehiculos) {
-            if (v.getID() == id) {
-                return v;
-            }
+        int v = disposicion.indice(id);
+        if (v < 0) {
+            return null;
         }
-        return null;
+        return getVehiculos().get(v);
     }
 
     /**
@@ -53,7 +122,7 @@ public class Tablero {
      * para el juego y las consultas.
      */
     public static Tablero create_tablero(Nivel nivel) {
-        char[] auxCasillas = Nivel.getArrayLevel();
+        char[] auxCasillas = nivel.getArrayLevel();
         char[][] casillas = new char[6][6];
         if (Nivel.verify_level(auxCasillas) == 0) {
             for (int i = 0; i < 6; i++) {
@@ -66,58 +135,22 @@ public class Tablero {
             return null;
         }
 
-        Tablero tablero = new Tablero(casillas);
-        tablero.poblarVehiculos();
-        return tablero;
-    }
-
-    /**
-     * QUE: Comprueba si un vehículo está almacenado en la lista de Vehículos.
-     * POR QUE: Para comprobar que no se dupliquen vehículos al escanear el tablero.
-     */
-    private boolean idYaExiste(char id) {
-        for (Vehiculo v : this.vehiculos) {
-            if (v.getID() == id)
-                return true;
-        }
-        return false;
-    }
-
-    /**
-     * QUE: Escanea la matriz de casillas y crea los objetos Vehiculo.
-     * POR QUE: Para poblar la lista de vehículos del tablero. Se usa en
-     * create_tablero y en applyMove.
-     */
-    private void poblarVehiculos() {
-        this.vehiculos.clear();
-        for (int i = 0; i < 6; i++) {
-            for (int j = 0; j < 6; j++) {
-                char id = this.casillas[i][j];
-                if (id != 'o' && !idYaExiste(id)) {
-                    ArrayList<Integer[]> coords = this.findVehicleCoords(id);
-                    Vehiculo v = new Vehiculo(id, coords);
-                    this.getVehiculos().add(v);
-                }
-            }
-        }
+        return new Tablero(casillas);
     }
 
     /**
-     * QUE: Encuentra todas las posiciones (fila, columna) de un vehículo
-     * específico.
-     * POR QUE: Necesario para crear el objeto Vehiculo durante la inicialización
-     * del tablero.
+     * QUE: Crea el objeto Vehiculo de un índice de la disposición.
+     * POR QUE: Las consultas de la Tarea 1 siguen trabajando con coordenadas
+     * (fila, columna).
      */
-    private ArrayList<Integer[]> findVehicleCoords(char vehicle) {
-        ArrayList<Integer[]> positions = new ArrayList<>();
-        for (int i = 0; i < 6; i++) {
-            for (int j = 0; j < 6; j++) {
-                if (this.casillas[i][j] == vehicle) {
-                    positions.add(new Integer[] { i, j });
-                }
-            }
+    private Vehiculo crearVehiculo(int v) {
+        ArrayList<Integer[]> coords = new ArrayList<>(disposicion.getLongitud(v));
+        int pos = Disposicion.posicion(estado, v);
+        for (int k = 0; k < disposicion.getLongitud(v); k++) {
+            int casilla = disposicion.casilla(v, pos, k);
+            coords.add(new Integer[] { casilla / 6, casilla % 6 });
         }
-        return positions;
+        return new Vehiculo(disposicion.getID(v), coords);
     }
 
     public String getVehiclePositionsFormatted(char vehicle) {
@@ -145,7 +178,7 @@ public class Tablero {
     }
 
     public int countVehicles() {
-        return this.vehiculos.size();
+        return disposicion.numVehiculos();
     }
 
     /**
@@ -153,13 +186,7 @@ public class Tablero {
      * POR QUE: Necesario para la salida de los comandos 'successors' y 'move'
      */
     public String levelToString() {
-        StringBuilder sb = new StringBuilder(36);
-        for (int i = 0; i < 6; i++) {
-            for (int j = 0; j < 6; j++) {
-                sb.append(this.casillas[i][j]);
-            }
-        }
-        return sb.toString();
+        return disposicion.decodificar(estado);
     }
 
     /**
@@ -167,121 +194,94 @@ public class Tablero {
      * POR QUE: Requerido por la Tarea 2, opción '--goal'.
      */
     public boolean isGoal() {
-        Vehiculo cocheA = getVehiculoById('A');
-        if (cocheA == null)
-            return false;
-        for (Integer[] coord : cocheA.getCoords()) {
-            if (coord[0] == 2 && coord[1] == 5) {
-                return true;
-            }
-        }
-        return false;
+        return disposicion.esMeta(estado);
     }
 
     /**
      * QUE: Genera todos los estados sucesores válidos desde el estado actual.
-     * POR QUE: Requerido por la Tarea 2, comando 'successors'.
+     * POR QUE: Requerido por la Tarea 2, comando 'successors'. Es la vía de
+     * compatibilidad: la búsqueda usa directamente
+     * Disposicion.generarSucesores sin crear la lista.
      */
     public ArrayList<Sucesor> getSuccessors() {
+        long t = Instrumentacion.ACTIVA ? System.nanoTime() : 0;
         ArrayList<Sucesor> sucesores = new ArrayList<>();
-        Collections.sort(this.vehiculos, new Comparator<Vehiculo>() {
-            @Override
-            public int compare(Vehiculo v1, Vehiculo v2) {
-                return Character.compare(v1.getID(), v2.getID());
-            }
-        });
-
-        for (Vehiculo v : this.vehiculos) {
-
-            findMoves(v, sucesores, true);
-
-            findMoves(v, sucesores, false);
+        disposicion.generarSucesores(estado,
+                (accion, costo, nuevoEstado) -> sucesores.add(new Sucesor(disposicion, accion, nuevoEstado, costo)));
+        if (Instrumentacion.ACTIVA) {
+            Instrumentacion.sumar(Instrumentacion.FASE_SUCESORES, t);
         }
-
         return sucesores;
     }
 
     /**
-     * QUE: Encuentra movimientos válidos para un vehículo en una dirección.
-     * POR QUE: Método de ayuda para getSuccessors(), maneja la lógica de
-     * escaneo.
+     * QUE: Calcula cuántas casillas puede deslizarse un vehículo en el sentido
+     * del carril indicado por el signo de paso.
+     * POR QUE: Equivale a encadenar canMove con distancias crecientes hasta el
+     * primer bloqueo; lo usa '--move' para validar el recorrido completo.
      */
-    private void findMoves(Vehiculo v, ArrayList<Sucesor> sucesores, boolean positiveDir) {
-        char dirChar = positiveDir ? '+' : '-';
-        int dr = 0, dc = 0;
-
-        if (v.isHorizontal()) {
-            dc = positiveDir ? 1 : -1;
-        } else {
-            dr = positiveDir ? -1 : 1;
+    private int distanciaMaxima(int v, int paso) {
+        calcularOcupacion();
+        int bits = disposicion.bitsCarril(v, ocupacion, ocupacionTraspuesta);
+        int deslizamiento = disposicion.deslizamiento(v, Disposicion.posicion(estado, v), bits);
+        // Hacia índices mayores es '+' en horizontales y '-' en verticales.
+        if ((paso > 0) == disposicion.isHorizontal(v)) {
+            return Disposicion.maxPositiva(deslizamiento);
         }
+        return Disposicion.maxNegativa(deslizamiento);
+    }
 
-        for (int dist = 1; dist <= 5; dist++) {
-            if (canMove(v, dr * dist, dc * dist)) {
-
-                String accion = "" + v.getID() + dirChar + dist;
-                int costo = 6 - dist;
-                Tablero nuevoEstado = applyMove(v, dr * dist, dc * dist);
-                sucesores.add(new Sucesor(accion, nuevoEstado, costo));
-            } else {
-
-                break;
-            }
+    /**
+     * QUE: Traduce una dirección '+'/'-' y una distancia a un desplazamiento
+     * con signo a lo largo del carril del vehículo.
+     * POR QUE: '+' es derecha en horizontales pero arriba (fila menor) en
+     * verticales.
+     */
+    private int desplazamientoCarril(int v, boolean positiveDir, int dist) {
+        if (disposicion.isHorizontal(v)) {
+            return positiveDir ? dist : -dist;
         }
+        return positiveDir ? -dist : dist;
     }
 
     /**
-     * QUE: Verifica si un vehículo puede moverse una distancia (dr, dc).
+     * QUE: Verifica si un vehículo puede moverse un desplazamiento a lo largo
+     * de su carril.
      * POR QUE: Para saber si la casilla destino está libre y dentro del tablero.
      */
-    private boolean canMove(Vehiculo v, int dr, int dc) {
-
-        ArrayList<Integer[]> coords = v.getCoords();
-        Integer[] coordToCheck;
-
-        if (dr > 0)
-            coordToCheck = coords.get(coords.size() - 1);
-        else if (dr < 0)
-            coordToCheck = coords.get(0);
-        else if (dc > 0)
-            coordToCheck = coords.get(coords.size() - 1);
-        else
-            coordToCheck = coords.get(0);
+    private boolean canMove(int v, int desplazamiento) {
+        int pos = Disposicion.posicion(estado, v);
+        int destino = (desplazamiento > 0)
+                ? pos + disposicion.getLongitud(v) - 1 + desplazamiento
+                : pos + desplazamiento;
 
-        int newRow = coordToCheck[0] + dr;
-        int newCol = coordToCheck[1] + dc;
-
-        if (newRow < 0 || newRow > 5 || newCol < 0 || newCol > 5) {
+        if (destino < 0 || destino > 5) {
             return false;
         }
 
-        return this.casillas[newRow][newCol] == 'o';
+        calcularOcupacion();
+        int bits = disposicion.bitsCarril(v, ocupacion, ocupacionTraspuesta);
+        return (bits & (1 << destino)) == 0;
     }
 
     /**
-     * QUE: Aplica un movimiento a un vehículo y devuelve un NUEVO estado.
+     * QUE: Aplica un movimiento a un vehículo y devuelve el NUEVO estado
+     * codificado.
      * POR QUE: Para generar los tableros de los sucesores y para el comando
      * '--move'.
      */
-    private Tablero applyMove(Vehiculo v, int dr, int dc) {
-
-        char[][] nuevasCasillas = new char[6][6];
-        for (int i = 0; i < 6; i++) {
-            nuevasCasillas[i] = this.casillas[i].clone();
-        }
-
-        for (Integer[] coord : v.getCoords()) {
-            nuevasCasillas[coord[0]][coord[1]] = 'o';
-        }
-
-        for (Integer[] coord : v.getCoords()) {
-            nuevasCasillas[coord[0] + dr][coord[1] + dc] = v.getID();
-        }
-
-        Tablero nuevoTablero = new Tablero(nuevasCasillas);
-        nuevoTablero.poblarVehiculos();
+    private long applyMove(int v, int desplazamiento) {
+        return Disposicion.conPosicion(estado, v, Disposicion.posicion(estado, v) + desplazamiento);
+    }
 
-        return nuevoTablero;
+    /**
+     * QUE: Tablero resultante de aplicar un movimiento, con su hash
+     * actualizado incrementalmente.
+     */
+    private Tablero mover(int v, int desplazamiento) {
+        int pos = Disposicion.posicion(estado, v);
+        return new Tablero(disposicion, applyMove(v, desplazamiento),
+                Disposicion.hashMovimiento(hash, v, pos, pos + desplazamiento));
     }
 
     /**
@@ -293,33 +293,27 @@ public class Tablero {
         char dir = accion.charAt(1);
         int dist = Integer.parseInt(accion.substring(2));
 
-        Vehiculo v = getVehiculoById(id);
-        if (v == null) {
+        int v = disposicion.indice(id);
+        if (v < 0) {
             System.out.println("Error: Vehículo '" + id + "' no encontrado en --move.");
             return this;
         }
 
-        int dr = 0;
-        int dc = 0;
-
-        if (v.isHorizontal()) {
-            dc = (dir == '+') ? dist : -dist;
-        } else {
-            dr = (dir == '+') ? -dist : dist;
-        }
+        int desplazamiento = desplazamientoCarril(v, dir == '+', dist);
 
-        if (canMove(v, (dir == '+') ? dr : dr * dist, (dir == '+') ? dc : dc * dist)) {
-            return applyMove(v, dr, dc);
+        // Además de la casilla destino, todo el recorrido debe estar libre: un
+        // salto por encima de otro vehículo no es un estado representable.
+        if (canMove(v, (dir == '+') ? desplazamiento : desplazamiento * dist)
+                && Math.abs(desplazamiento) <= distanciaMaxima(v, desplazamiento)) {
+            return mover(v, desplazamiento);
         } else {
 
             Tablero estadoIntermedio = this;
-            int dr_step = (dr == 0) ? 0 : (dr > 0 ? 1 : -1);
-            int dc_step = (dc == 0) ? 0 : (dc > 0 ? 1 : -1);
+            int paso = Integer.signum(desplazamiento);
 
             for (int i = 0; i < dist; i++) {
-                Vehiculo v_actual = estadoIntermedio.getVehiculoById(id);
-                if (estadoIntermedio.canMove(v_actual, dr_step, dc_step)) {
-                    estadoIntermedio = estadoIntermedio.applyMove(v_actual, dr_step, dc_step);
+                if (estadoIntermedio.canMove(v, paso)) {
+                    estadoIntermedio = estadoIntermedio.mover(v, paso);
                 } else {
                     System.out.println("Error: Movimiento '" + accion + "' es inválido.");
                     return this;
@@ -328,4 +322,4 @@ public class Tablero {
             return estadoIntermedio;
         }
     }
-}
\ No newline at end of file
+}
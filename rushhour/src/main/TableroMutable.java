@@ -0,0 +1,70 @@
+package main;
+
+/**
+ * QUE: Tablero modificable en el sitio: estado codificado más sus dos
+ * bitboards de ocupación, actualizados en cada movimiento.
+ * POR QUE: Las búsquedas en profundidad (IDA*, DFS iterativa) aplican y
+ * deshacen movimientos sobre un único tablero en lugar de crear un Tablero por
+ * sucesor; cada movimiento cuesta tres XOR.
+ */
+public class TableroMutable {
+
+    private final Disposicion disposicion;
+    private long estado;
+    private long ocupacion;
+    private long ocupacionTraspuesta;
+    private long hash;
+
+    public TableroMutable(Disposicion disposicion, long estado) {
+        this.disposicion = disposicion;
+        this.estado = estado;
+        this.ocupacion = disposicion.ocupacion(estado);
+        this.ocupacionTraspuesta = disposicion.ocupacionTraspuesta(estado);
+        this.hash = Disposicion.hashZobrist(estado);
+    }
+
+    /**
+     * QUE: Coloca un vehículo en una nueva posición de su carril.
+     * POR QUE: Sirve tanto para hacer como para deshacer un movimiento
+     * (deshacer es mover de vuelta a la posición anterior). Las máscaras
+     * vieja y nueva se combinan con XOR: la vieja quita sus casillas y la
+     * nueva pone las suyas. El hash Zobrist se actualiza igual.
+     */
+    public void mover(int v, int nuevaPos) {
+        int pos = Disposicion.posicion(estado, v);
+        ocupacion ^= disposicion.mascara(v, pos) ^ disposicion.mascara(v, nuevaPos);
+        ocupacionTraspuesta ^= disposicion.mascaraTraspuesta(v, pos) ^ disposicion.mascaraTraspuesta(v, nuevaPos);
+        hash = Disposicion.hashMovimiento(hash, v, pos, nuevaPos);
+        estado = Disposicion.conPosicion(estado, v, nuevaPos);
+    }
+
+    /**
+     * QUE: Ocupación del carril de un vehículo en el estado actual.
+     * POR QUE: Para consultar sus distancias legales en
+     * Disposicion.deslizamiento.
+     */
+    public int bitsCarril(int v) {
+        return disposicion.bitsCarril(v, ocupacion, ocupacionTraspuesta);
+    }
+
+    public int posicion(int v) {
+        return Disposicion.posicion(estado, v);
+    }
+
+    public long getEstado() {
+        return estado;
+    }
+
+    /**
+     * QUE: Hash Zobrist del estado actual.
+     * POR QUE: Clave de sondeo de la tabla de transposición sin volver a
+     * mezclar el estado en cada nodo.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    public Disposicion getDisposicion() {
+        return disposicion;
+    }
+}
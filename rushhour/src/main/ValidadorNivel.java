@@ -0,0 +1,140 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * QUE: Valida un nivel con un único recorrido de sus 36 casillas.
+ * POR QUE: La validación anterior hacía varias pasadas, compilaba una
+ * expresión regular en cada llamada y creaba Strings por casilla. Aquí un
+ * recorrido rellena, por letra, el número de casillas y las tres primeras
+ * posiciones, y todas las reglas se deciden con esos datos sin crear objetos.
+ *
+ * Los códigos y su precedencia son los de Nivel.verify_level: -1 nulo o
+ * vacío, 1 longitud, 2 caracteres, 3 coche rojo ausente o sin exactamente 2
+ * casillas, 4 coche rojo fuera de la tercera fila, 5 coche rojo no
+ * horizontal, 7 vehículo no continuo y 6 longitud de vehículo no válida.
+ *
+ * Una instancia reutiliza sus arrays entre llamadas, así que no debe
+ * compartirse entre hilos; Nivel guarda una por hilo.
+ */
+public class ValidadorNivel {
+
+    private static final int LETRAS = 26;
+
+    /** Se guardan las tres primeras casillas de cada letra, como hacía Nivel. */
+    private static final int POSICIONES = 3;
+
+    private final int[] cuenta = new int[LETRAS];
+    private final int[] posiciones = new int[LETRAS * POSICIONES];
+
+    /**
+     * QUE: Valida un nivel dado como String.
+     * POR QUE: Evita copiar el String a un char[] solo para validarlo.
+     */
+    public int validar(String nivel) {
+        if (nivel == null || nivel.isEmpty()) {
+            return -1;
+        }
+        if (nivel.length() != 36) {
+            return 1;
+        }
+        Arrays.fill(cuenta, 0);
+        for (int i = 0; i < 36; i++) {
+            if (!registrar(nivel.charAt(i), i)) {
+                return 2;
+            }
+        }
+        return comprobarVehiculos();
+    }
+
+    /**
+     * QUE: Valida un nivel dado como vector de casillas.
+     * POR QUE: Misma entrada que Nivel.verify_level.
+     */
+    public int validar(char[] casillas) {
+        if (casillas == null || casillas.length == 0) {
+            return -1;
+        }
+        if (casillas.length != 36) {
+            return 1;
+        }
+        Arrays.fill(cuenta, 0);
+        for (int i = 0; i < 36; i++) {
+            if (!registrar(casillas[i], i)) {
+                return 2;
+            }
+        }
+        return comprobarVehiculos();
+    }
+
+    /**
+     * QUE: Anota una casilla en los contadores de su letra.
+     * POR QUE: Devuelve false si el carácter no es una mayúscula ni 'o'.
+     */
+    private boolean registrar(char c, int casilla) {
+        if (c == 'o') {
+            return true;
+        }
+        if (c < 'A' || c > 'Z') {
+            return false;
+        }
+        int letra = c - 'A';
+        int n = cuenta[letra]++;
+        if (n < POSICIONES) {
+            posiciones[letra * POSICIONES + n] = casilla;
+        }
+        return true;
+    }
+
+    /**
+     * QUE: Aplica las reglas del coche rojo y de los vehículos.
+     * POR QUE: Todas las continuidades (7) se comprueban antes que las
+     * longitudes (6), igual que en la validación original.
+     */
+    private int comprobarVehiculos() {
+        if (cuenta[0] != 2) {
+            return 3;
+        }
+        int a0 = posiciones[0];
+        int a1 = posiciones[1];
+        if (!(a0 >= 12 && a0 < 18) && !(a1 >= 12 && a1 < 18)) {
+            return 4;
+        }
+        if (a1 != a0 + 1 || a0 < 12 || a0 > 16) {
+            return 5;
+        }
+
+        for (int letra = 0; letra < LETRAS; letra++) {
+            if (cuenta[letra] > 0 && !esContinuo(letra)) {
+                return 7;
+            }
+        }
+        for (int letra = 0; letra < LETRAS; letra++) {
+            if (cuenta[letra] > 0 && (cuenta[letra] < 2 || cuenta[letra] > 3)) {
+                return 6;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * QUE: Comprueba si las primeras casillas de una letra son adyacentes en
+     * una fila o en una columna.
+     * POR QUE: Con más de tres casillas solo se miran las tres primeras (el
+     * vehículo fallará después por longitud), como en la validación original.
+     */
+    private boolean esContinuo(int letra) {
+        int base = letra * POSICIONES;
+        int p1 = posiciones[base];
+        int p2 = posiciones[base + 1];
+        switch (Math.min(cuenta[letra], POSICIONES)) {
+            case 2:
+                return (p2 - p1 == 1 && p1 / 6 == p2 / 6) || p2 - p1 == 6;
+            case 3:
+                int p3 = posiciones[base + 2];
+                return (p2 - p1 == 1 && p3 - p2 == 1 && p1 / 6 == p3 / 6) || (p2 - p1 == 6 && p3 - p2 == 6);
+            default:
+                return true;
+        }
+    }
+}
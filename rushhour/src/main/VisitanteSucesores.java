@@ -0,0 +1,21 @@
+package main;
+
+/**
+ * QUE: Recibe, uno a uno, los sucesores que genera
+ * Disposicion.generarSucesores.
+ * POR QUE: Permite recorrer los sucesores en los bucles de búsqueda sin crear
+ * listas, Tableros ni Strings por cada movimiento.
+ */
+public interface VisitanteSucesores {
+
+    /**
+     * QUE: Procesa un sucesor.
+     * POR QUE: Los sucesores llegan en el mismo orden que getSuccessors()
+     * (ID ascendente, '+' antes que '-', distancia creciente).
+     *
+     * @param accion      acción codificada con Accion.codificar
+     * @param costo       coste del movimiento (6 - distancia)
+     * @param nuevoEstado estado codificado resultante
+     */
+    void visitar(int accion, int costo, long nuevoEstado);
+}